@@ -12,6 +12,8 @@ export default function EcommerceApp() {
   const [products, setProducts] = useState([]);
   const [cart, setCart] = useState([]);
   const [orders, setOrders] = useState([]);
+  const [ordersCursor, setOrdersCursor] = useState(null); // nextCursor of the last history page, null when all are loaded
+  const [loadingMoreOrders, setLoadingMoreOrders] = useState(false);
   const [reviews, setReviews] = useState([]);
   const [view, setView] = useState("products");
   const [message, setMessage] = useState("");
@@ -145,8 +147,25 @@ const toggleWishlist = async (productId) => {
     try {
       const res = await axios.get(`${API_BASE}/orders/history`);
       setOrders(normalizeArray(res.data));
+      setOrdersCursor(res.data?.nextCursor ?? null);
     } catch {
       setOrders([]);
+      setOrdersCursor(null);
+    }
+  };
+
+  // ✅ History is keyset-paged: the previous page's nextCursor goes back as ?before=
+  const loadMoreOrders = async () => {
+    if (ordersCursor == null || loadingMoreOrders) return;
+    setLoadingMoreOrders(true);
+    try {
+      const res = await axios.get(`${API_BASE}/orders/history`, { params: { before: ordersCursor } });
+      setOrders((prev) => [...prev, ...normalizeArray(res.data)]);
+      setOrdersCursor(res.data?.nextCursor ?? null);
+    } catch {
+      showMsg("Failed to load more orders");
+    } finally {
+      setLoadingMoreOrders(false);
     }
   };
 
@@ -377,7 +396,7 @@ const addToCart = async (productId, qty = 1) => {
           minRating: minRating || null,
         },
       });
-      setProducts(res.data);
+      setProducts(normalizeArray(res.data));
       showMsg("Filters applied");
       setShowFilters(false);
       setCurrentPage(1);
@@ -590,7 +609,7 @@ const addToCart = async (productId, qty = 1) => {
                           minRating: minRating || null,
                         },
                       });
-                      setProducts(res.data);
+                      setProducts(normalizeArray(res.data));
                       showMsg(`Filtered by ${cat.name}`, 2000);
                     } catch (err) {
                       console.error("category filter error:", err);
@@ -1149,6 +1168,22 @@ const addToCart = async (productId, qty = 1) => {
                     })}
                   </div>
                 ))}
+
+                {ordersCursor != null && (
+                  <div className="flex justify-center pt-2">
+                    <button
+                      onClick={loadMoreOrders}
+                      disabled={loadingMoreOrders}
+                      className={`px-6 py-2 rounded-lg font-medium transition-all duration-300 ${
+                        loadingMoreOrders
+                          ? "bg-slate-100 text-slate-400 cursor-not-allowed"
+                          : "bg-white border border-slate-200 hover:border-blue-300 text-slate-700"
+                      }`}
+                    >
+                      {loadingMoreOrders ? "Loading..." : "Load more orders"}
+                    </button>
+                  </div>
+                )}
               </div>
             ) : (
               <div className="bg-white rounded-xl p-12 text-center border border-slate-200">
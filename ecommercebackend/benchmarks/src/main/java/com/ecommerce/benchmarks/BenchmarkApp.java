@@ -0,0 +1,110 @@
+package com.ecommerce.benchmarks;
+
+import com.ecommerce.ecommercebackend.EcommerceBackendApplication;
+import com.ecommerce.ecommercebackend.service.ProductService;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Random;
+import java.util.stream.Stream;
+
+/**
+ * Boots the backend on a private in-memory H2 database and seeds a deterministic catalog.
+ * Seeding goes through JDBC batches; the in-memory indexes are then rebuilt once, as after a bulk import.
+ */
+public final class BenchmarkApp {
+
+    static final String[] CATEGORIES = {
+            "Electronics", "Books", "Kitchen", "Garden", "Toys", "Sports", "Beauty", "Music", "Office", "Pets",
+            "Lighting", "Furniture", "Shoes", "Bags", "Watches", "Tools", "Outdoor", "Baby", "Grocery", "Games"};
+
+    static final String[] WORDS = {
+            "lamp", "phone", "charger", "novel", "kettle", "shovel", "puzzle", "racket", "serum", "guitar",
+            "stapler", "leash", "bulb", "sofa", "sneaker", "backpack", "watch", "drill", "tent", "stroller",
+            "coffee", "console", "wireless", "steel", "leather", "organic", "compact", "premium", "smart", "classic"};
+
+    private static final String INSERT_PRODUCT =
+            "INSERT INTO product (name, description, price, qty, image_url, avg_rating, category_id) VALUES (?, ?, ?, ?, ?, ?, ?)";
+
+    private static final String SEED_STATS =
+            "INSERT INTO product_rating_stats " +
+            "(product_id, review_count, rating_sum, stars1, stars2, stars3, stars4, stars5) " +
+            "SELECT p.id, 0, 0, 0, 0, 0, 0, 0 FROM product p " +
+            "WHERE NOT EXISTS (SELECT 1 FROM product_rating_stats s WHERE s.product_id = p.id)";
+
+    private BenchmarkApp() {
+    }
+
+    public static ConfigurableApplicationContext start(String database, String... extraArgs) {
+        String[] args = Stream.concat(Stream.of(
+                "--server.port=0",
+                "--spring.datasource.url=jdbc:h2:mem:" + database
+                        + ";MODE=MySQL;DB_CLOSE_DELAY=-1;LOCK_TIMEOUT=10000;IGNORE_UNKNOWN_SETTINGS=TRUE",
+                "--spring.datasource.username=sa",
+                "--spring.datasource.password=",
+                "--spring.datasource.driver-class-name=org.h2.Driver",
+                "--spring.jpa.hibernate.ddl-auto=create-drop",
+                "--spring.jpa.show-sql=false",
+                "--spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+                "--spring.main.banner-mode=off",
+                "--logging.level.root=WARN",
+                // Cheap hashes: the benchmarks measure the app, not BCrypt
+                "--security.password.bcrypt-strength=4",
+                // Every simulated client comes from localhost
+                "--rate-limit.enabled=false"), Stream.of(extraArgs))
+                .toArray(String[]::new);
+        return new SpringApplicationBuilder(EcommerceBackendApplication.class).run(args);
+    }
+
+    /** Seeds every category, {@code products} products and {@code users} users, and returns their ids. */
+    public static Dataset seed(ConfigurableApplicationContext ctx, int products, int users, long seed) {
+        JdbcTemplate jdbc = ctx.getBean(JdbcTemplate.class);
+        Random rnd = new Random(seed);
+
+        for (String c : CATEGORIES) {
+            jdbc.update("INSERT INTO category (name, normalized_name) VALUES (?, ?)", c, c.toLowerCase(Locale.ROOT));
+        }
+        List<Long> categoryIds = jdbc.queryForList("SELECT id FROM category ORDER BY id", Long.class);
+
+        List<Object[]> batch = new ArrayList<>(1000);
+        for (int i = 0; i < products; i++) {
+            String name = capitalize(word(rnd)) + " " + word(rnd) + " " + i;
+            String description = word(rnd) + " " + word(rnd) + " " + word(rnd) + " for everyday use, " + word(rnd) + " finish";
+            BigDecimal price = BigDecimal.valueOf(100 + rnd.nextInt(50_000));
+            double rating = Math.round(rnd.nextDouble() * 50) / 10.0;
+            batch.add(new Object[]{name, description, price, 1_000_000_000, "https://img.example.com/p/" + i + ".jpg",
+                    rating, categoryIds.get(rnd.nextInt(categoryIds.size()))});
+            if (batch.size() == 1000) {
+                jdbc.batchUpdate(INSERT_PRODUCT, batch);
+                batch.clear();
+            }
+        }
+        if (!batch.isEmpty()) jdbc.batchUpdate(INSERT_PRODUCT, batch);
+        jdbc.update(SEED_STATS);
+
+        List<Object[]> userRows = new ArrayList<>(users);
+        for (int u = 0; u < users; u++) userRows.add(new Object[]{"bench-user-" + u, "x", "USER"});
+        jdbc.batchUpdate("INSERT INTO users (username, password, role) VALUES (?, ?, ?)", userRows);
+
+        ctx.getBean(ProductService.class).catalogReloaded();
+        return new Dataset(
+                jdbc.queryForList("SELECT id FROM product ORDER BY id", Long.class),
+                jdbc.queryForList("SELECT id FROM users ORDER BY id", Long.class),
+                categoryIds);
+    }
+
+    static String word(Random rnd) {
+        return WORDS[rnd.nextInt(WORDS.length)];
+    }
+
+    private static String capitalize(String w) {
+        return Character.toUpperCase(w.charAt(0)) + w.substring(1);
+    }
+
+    public record Dataset(List<Long> productIds, List<Long> userIds, List<Long> categoryIds) {}
+}
@@ -0,0 +1,61 @@
+package com.ecommerce.benchmarks;
+
+import com.ecommerce.ecommercebackend.entity.Product;
+import com.ecommerce.ecommercebackend.repository.ProductRepository;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Repository read paths behind /api/products/search and /api/products/filter.
+ * These are the JPQL queries (the fallbacks until the in-memory indexes are built), so they scale with catalog size.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class CatalogReadBenchmark {
+
+    @Param({"1000", "10000", "100000"})
+    public int products;
+
+    private ConfigurableApplicationContext ctx;
+    private ProductRepository productRepo;
+    private List<Long> categoryIds;
+    private final Random rnd = new Random(7);
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        ctx = BenchmarkApp.start("catalog" + products);
+        BenchmarkApp.Dataset data = BenchmarkApp.seed(ctx, products, 10, 42);
+        productRepo = ctx.getBean(ProductRepository.class);
+        categoryIds = data.categoryIds();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        ctx.close();
+    }
+
+    @Benchmark
+    public List<Product> searchProducts() {
+        return productRepo.searchProducts(BenchmarkApp.word(rnd));
+    }
+
+    @Benchmark
+    public List<Product> filterProducts() {
+        Long category = categoryIds.get(rnd.nextInt(categoryIds.size()));
+        return productRepo.filterProducts(category, 1000.0, 20000.0, 3.0);
+    }
+
+    @Benchmark
+    public void filterProductsNoCategory(Blackhole bh) {
+        bh.consume(productRepo.filterProducts(null, 1000.0, 5000.0, 4.0));
+    }
+}
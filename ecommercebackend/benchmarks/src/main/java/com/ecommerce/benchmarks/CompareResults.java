@@ -0,0 +1,70 @@
+package com.ecommerce.benchmarks;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Prints old vs new score per benchmark and parameter set from two JMH JSON result files.
+ * Usage: CompareResults before.json after.json
+ */
+public final class CompareResults {
+
+    private CompareResults() {
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length != 2) {
+            System.err.println("usage: CompareResults <before.json> <after.json>");
+            System.exit(2);
+        }
+        Map<String, JsonNode> before = load(args[0]);
+        Map<String, JsonNode> after = load(args[1]);
+
+        System.out.printf("%-70s %14s %14s %9s%n", "benchmark", "before", "after", "change");
+        for (Map.Entry<String, JsonNode> e : after.entrySet()) {
+            JsonNode now = e.getValue().get("primaryMetric");
+            JsonNode then = before.containsKey(e.getKey()) ? before.get(e.getKey()).get("primaryMetric") : null;
+            String unit = now.get("scoreUnit").asText();
+            double score = now.get("score").asDouble();
+            if (then == null) {
+                System.out.printf("%-70s %14s %14s %9s%n", e.getKey(), "-", format(score, unit), "new");
+                continue;
+            }
+            double old = then.get("score").asDouble();
+            System.out.printf("%-70s %14s %14s %+8.1f%%%n", e.getKey(), format(old, unit), format(score, unit),
+                    (score - old) / old * 100);
+        }
+        for (String gone : before.keySet()) {
+            if (!after.containsKey(gone)) System.out.printf("%-70s %14s %14s %9s%n", gone, "", "-", "removed");
+        }
+    }
+
+    // "Class.method [param=value,...]" -> result
+    private static Map<String, JsonNode> load(String path) throws IOException {
+        Map<String, JsonNode> out = new LinkedHashMap<>();
+        for (JsonNode run : new ObjectMapper().readTree(new File(path))) {
+            String name = run.get("benchmark").asText().replace("com.ecommerce.benchmarks.", "");
+            JsonNode params = run.get("params");
+            if (params != null) {
+                StringBuilder key = new StringBuilder(name).append(" [");
+                for (Iterator<Map.Entry<String, JsonNode>> it = params.fields(); it.hasNext(); ) {
+                    Map.Entry<String, JsonNode> p = it.next();
+                    key.append(p.getKey()).append('=').append(p.getValue().asText()).append(it.hasNext() ? "," : "]");
+                }
+                name = key.toString();
+            }
+            out.put(name, run);
+        }
+        return out;
+    }
+
+    private static String format(double score, String unit) {
+        return String.format("%.2f %s", score, unit);
+    }
+}
@@ -0,0 +1,62 @@
+package com.ecommerce.benchmarks;
+
+import com.ecommerce.ecommercebackend.entity.Order;
+import com.ecommerce.ecommercebackend.entity.Product;
+import com.ecommerce.ecommercebackend.repository.CartItemRepository;
+import com.ecommerce.ecommercebackend.repository.OrderRepository;
+import com.ecommerce.ecommercebackend.repository.ProductRepository;
+import com.ecommerce.ecommercebackend.service.OrderService;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/** Response serialization with the app's ObjectMapper: a page of products, and one order with as many lines. */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JsonSerializationBenchmark {
+
+    @Param({"10", "100", "1000"})
+    public int items;
+
+    private ConfigurableApplicationContext ctx;
+    private ObjectMapper objectMapper;
+    private List<Product> products;
+    private Order order;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        ctx = BenchmarkApp.start("json" + items);
+        BenchmarkApp.Dataset data = BenchmarkApp.seed(ctx, items, 1, 42);
+        objectMapper = ctx.getBean(ObjectMapper.class);
+        products = ctx.getBean(ProductRepository.class).findAllById(data.productIds());
+
+        Long userId = data.userIds().get(0);
+        CartItemRepository cartRepo = ctx.getBean(CartItemRepository.class);
+        for (Long pid : data.productIds()) cartRepo.upsertAdd(userId, pid, 1);
+        Long orderId = ctx.getBean(OrderService.class).checkout(userId).getId();
+        order = ctx.getBean(OrderRepository.class).findWithItemsByIdIn(List.of(orderId)).get(0);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        ctx.close();
+    }
+
+    @Benchmark
+    public byte[] productList() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(products);
+    }
+
+    @Benchmark
+    public byte[] orderWithLines() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(order);
+    }
+}
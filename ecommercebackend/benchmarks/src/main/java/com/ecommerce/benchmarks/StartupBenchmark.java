@@ -0,0 +1,185 @@
+package com.ecommerce.benchmarks;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.ServerSocket;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.*;
+import java.util.jar.JarFile;
+
+/**
+ * Time from JVM launch to the first successful API response, for the deployable jar started the way
+ * production starts it: a fresh JVM per run, its own database, GET /api/categories/menu polled until 200.
+ *
+ * Variants:
+ *   update     java -jar app.jar, default profile (ddl-auto=update): what runs today
+ *   fast       extracted jar, fast-startup profile (Flyway + validate, lazy init, deferred JPA)
+ *   fast-cds   fast + a class-data-sharing archive recorded by a training run
+ *   fast-aot   fast-cds + -Dspring.aot.enabled=true (only when the jar was built with -Paot)
+ *
+ * Each variant gets one unmeasured priming run (which creates its schema), then startup.runs measured ones,
+ * so the numbers are for a restart against an existing database, as on a redeploy or scale-out.
+ * Without -Dstartup.url every variant uses its own H2 file database under startup.out; with it, MySQL.
+ *
+ *   mvn -f ../pom.xml package -DskipTests && mvn package exec:java@startup -Dstartup.runs=5
+ *   -Dstartup.url=jdbc:mysql://localhost:3306/shop -Dstartup.username=root -Dstartup.password=secret
+ *   -Dstartup.variants=update,fast-cds
+ */
+public final class StartupBenchmark {
+
+    private static final String PROBE = "/api/categories/menu";
+    private static final String AOT_INITIALIZER =
+            "BOOT-INF/classes/com/ecommerce/ecommercebackend/EcommerceBackendApplication__ApplicationContextInitializer.class";
+
+    private final File jar = new File(System.getProperty("startup.jar", "../target/ecommercebackend-0.0.1-SNAPSHOT-exec.jar"));
+    private final File out = new File(System.getProperty("startup.out", "target/startup"));
+    private final int runs = Integer.getInteger("startup.runs", 5);
+    private final long timeoutMs = Long.getLong("startup.timeout-ms", 120_000);
+    private final String url = System.getProperty("startup.url");
+    private final String username = System.getProperty("startup.username", "sa");
+    private final String password = System.getProperty("startup.password", "");
+    private final String java = new File(System.getProperty("java.home"), "bin/java").getPath();
+
+    private final HttpClient http = HttpClient.newBuilder()
+            .version(HttpClient.Version.HTTP_1_1)
+            .connectTimeout(Duration.ofMillis(200))
+            .build();
+
+    private record Variant(String name, boolean extracted, boolean fastStartup, boolean cds, boolean aot) {}
+
+    public static void main(String[] args) throws Exception {
+        new StartupBenchmark().run();
+        System.exit(0);
+    }
+
+    void run() throws Exception {
+        if (!jar.isFile()) {
+            throw new IllegalStateException(jar + " not found: build the backend first (mvn -f ../pom.xml package -DskipTests)");
+        }
+        boolean aotBuilt;
+        try (JarFile j = new JarFile(jar)) {
+            aotBuilt = j.getEntry(AOT_INITIALIZER) != null;
+        }
+
+        List<Variant> variants = new ArrayList<>(List.of(
+                new Variant("update", false, false, false, false),
+                new Variant("fast", true, true, false, false),
+                new Variant("fast-cds", true, true, true, false)));
+        if (aotBuilt) variants.add(new Variant("fast-aot", true, true, true, true));
+        Set<String> only = new HashSet<>(Arrays.asList(System.getProperty("startup.variants", "").split(",")));
+        only.remove("");
+        if (!only.isEmpty()) variants.removeIf(v -> !only.contains(v.name()));
+
+        out.mkdirs();
+        File extracted = new File(out, "application");
+        if (variants.stream().anyMatch(Variant::extracted)) extract(extracted);
+
+        System.out.printf("%nstartup: %s, %d runs per variant, database %s%s%n", jar.getName(), runs,
+                url != null ? url : "H2 (file, per variant)", aotBuilt ? "" : ", jar built without -Paot (no fast-aot)");
+        Map<String, long[]> results = new LinkedHashMap<>();
+        for (Variant v : variants) {
+            if (v.cds()) train(v, extracted);
+            launch(v, extracted);
+            long[] ms = new long[runs];
+            for (int i = 0; i < runs; i++) ms[i] = launch(v, extracted);
+            Arrays.sort(ms);
+            results.put(v.name(), ms);
+        }
+
+        System.out.printf("%n%-10s %9s %9s %9s   (ms to first 200 from %s)%n", "variant", "min", "median", "max", PROBE);
+        long baseline = results.containsKey("update") ? results.get("update")[runs / 2] : 0;
+        results.forEach((name, ms) -> System.out.printf("%-10s %9d %9d %9d%s%n", name, ms[0], ms[runs / 2], ms[runs - 1],
+                baseline > 0 && !name.equals("update") ? String.format("   %.2fx", (double) baseline / ms[runs / 2]) : ""));
+    }
+
+    // Spring Boot's tools jarmode: app.jar plus lib/, the layout CDS can archive
+    private void extract(File dir) throws Exception {
+        exec(List.of(java, "-Djarmode=tools", "-jar", jar.getPath(), "extract", "--force", "--destination", dir.getPath()));
+    }
+
+    // Same training run as the Dockerfile: refresh the context without a database, archive the loaded classes
+    private void train(Variant v, File extracted) throws Exception {
+        List<String> cmd = new ArrayList<>(List.of(java, "-XX:ArchiveClassesAtExit=" + archive(v, extracted),
+                "-Dspring.aot.enabled=" + v.aot(),
+                "-Dspring.context.exit=onRefresh",
+                "-Dspring.profiles.active=fast-startup",
+                "-Dspring.flyway.enabled=false",
+                "-Dspring.jpa.hibernate.ddl-auto=none",
+                "-Dspring.jpa.properties.hibernate.boot.allow_jdbc_metadata_access=false",
+                "-Dspring.datasource.url=jdbc:mysql://localhost:3306/cds-training",
+                "-jar", new File(extracted, "app.jar").getPath()));
+        exec(cmd);
+    }
+
+    private long launch(Variant v, File extracted) throws Exception {
+        int port;
+        try (ServerSocket s = new ServerSocket(0)) {
+            port = s.getLocalPort();
+        }
+        List<String> cmd = new ArrayList<>(List.of(java));
+        if (v.cds()) cmd.add("-XX:SharedArchiveFile=" + archive(v, extracted));
+        if (v.aot()) cmd.add("-Dspring.aot.enabled=true");
+        cmd.add("-jar");
+        cmd.add(v.extracted() ? new File(extracted, "app.jar").getPath() : jar.getPath());
+        cmd.add("--server.port=" + port);
+        if (v.fastStartup()) cmd.add("--spring.profiles.active=fast-startup");
+        cmd.addAll(database(v));
+        cmd.add("--spring.main.banner-mode=off");
+        cmd.add("--logging.level.root=WARN");
+
+        File log = new File(out, v.name() + ".log");
+        long start = System.nanoTime();
+        Process p = new ProcessBuilder(cmd).redirectErrorStream(true).redirectOutput(log).start();
+        try {
+            HttpRequest probe = HttpRequest.newBuilder(URI.create("http://localhost:" + port + PROBE))
+                    .timeout(Duration.ofSeconds(5)).GET().build();
+            while (true) {
+                if (!p.isAlive()) throw new IllegalStateException(v.name() + " exited with " + p.exitValue() + ", see " + log);
+                if ((System.nanoTime() - start) / 1_000_000 > timeoutMs) {
+                    throw new IllegalStateException(v.name() + " not serving after " + timeoutMs + " ms, see " + log);
+                }
+                try {
+                    if (http.send(probe, HttpResponse.BodyHandlers.discarding()).statusCode() == 200) {
+                        return (System.nanoTime() - start) / 1_000_000;
+                    }
+                } catch (IOException notListeningYet) {
+                    // keep polling
+                }
+                Thread.sleep(10);
+            }
+        } finally {
+            p.destroy();
+            p.waitFor();
+        }
+    }
+
+    private List<String> database(Variant v) {
+        if (url != null) {
+            return List.of("--spring.datasource.url=" + url,
+                    "--spring.datasource.username=" + username,
+                    "--spring.datasource.password=" + password);
+        }
+        // Separate file databases: update's schema has no Flyway history, the fast variants' does
+        String db = new File(out, "db/" + (v.fastStartup() ? "fast" : "update")).getAbsolutePath();
+        return List.of("--spring.datasource.url=jdbc:h2:file:" + db + ";MODE=MySQL;LOCK_TIMEOUT=10000;IGNORE_UNKNOWN_SETTINGS=TRUE",
+                "--spring.datasource.username=sa",
+                "--spring.datasource.password=",
+                "--spring.datasource.driver-class-name=org.h2.Driver",
+                "--spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect");
+    }
+
+    private static String archive(Variant v, File extracted) {
+        return new File(extracted, v.aot() ? "app-aot.jsa" : "app.jsa").getPath();
+    }
+
+    private void exec(List<String> cmd) throws Exception {
+        File log = new File(out, "setup.log");
+        Process p = new ProcessBuilder(cmd).redirectErrorStream(true)
+                .redirectOutput(ProcessBuilder.Redirect.appendTo(log)).start();
+        if (p.waitFor() != 0) throw new IllegalStateException(String.join(" ", cmd) + " failed, see " + log);
+    }
+}
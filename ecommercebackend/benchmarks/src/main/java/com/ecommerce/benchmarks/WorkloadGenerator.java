@@ -0,0 +1,278 @@
+package com.ecommerce.benchmarks;
+
+import org.HdrHistogram.Histogram;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.*;
+
+/**
+ * Drives a weighted mix of user flows over real HTTP against the app booted on H2, with form login and the
+ * JSESSIONID cookie exactly as the frontend uses them. Reports throughput and p50/p95/p99 per endpoint and
+ * writes each endpoint's HdrHistogram percentile distribution (.hgrm) to load.out.
+ *
+ * Every client runs a fixed number of flows from its own Random(seed + client), so the same settings
+ * replay the same request sequence.
+ *
+ *   mvn package exec:java@load -Dload.clients=50 -Dload.flows=400 -Dload.seed=42
+ *   -Dload.mix=browse=35,search=15,filter=10,login=2,cart=20,wishlist=10,checkout=8
+ */
+public final class WorkloadGenerator {
+
+    private static final String PASSWORD = "load-password";
+
+    enum Flow { BROWSE, SEARCH, FILTER, LOGIN, CART, WISHLIST, CHECKOUT }
+
+    private static final String DEFAULT_MIX = "browse=35,search=15,filter=10,login=2,cart=20,wishlist=10,checkout=8";
+
+    private final int clients = Integer.getInteger("load.clients", 50);
+    private final int flows = Integer.getInteger("load.flows", 400);
+    private final int warmupFlows = Integer.getInteger("load.warmup-flows", 50);
+    private final int products = Integer.getInteger("load.products", 10_000);
+    private final long seed = Long.getLong("load.seed", 42);
+    private final File out = new File(System.getProperty("load.out", "target/load"));
+    private final EnumMap<Flow, Integer> mix = parseMix(System.getProperty("load.mix", DEFAULT_MIX));
+
+    private String base;
+    private HttpClient http;
+    private List<Long> productIds;
+    private List<Long> categoryIds;
+
+    public static void main(String[] args) throws Exception {
+        new WorkloadGenerator().run();
+        // Spring and HttpClient leave non-daemon threads behind under exec:java
+        System.exit(0);
+    }
+
+    void run() throws Exception {
+        try (ConfigurableApplicationContext ctx = BenchmarkApp.start("load")) {
+            base = "http://localhost:" + ((WebServerApplicationContext) ctx).getWebServer().getPort();
+            BenchmarkApp.Dataset data = BenchmarkApp.seed(ctx, products, clients, seed);
+            productIds = data.productIds();
+            categoryIds = data.categoryIds();
+            String hash = ctx.getBean(PasswordEncoder.class).encode(PASSWORD);
+            ctx.getBean(JdbcTemplate.class).update("UPDATE users SET password = ?", hash);
+
+            http = HttpClient.newBuilder()
+                    .version(HttpClient.Version.HTTP_1_1)
+                    .connectTimeout(Duration.ofSeconds(5))
+                    .build();
+
+            System.out.printf("%nload: %d clients x %d flows (+%d warmup), seed %d, %d products, mix %s%n",
+                    clients, flows, warmupFlows, seed, products, mix);
+            drive(warmupFlows, seed ^ 0x5DEECE66DL);
+            Report report = drive(flows, seed);
+            report.print();
+            report.write(out);
+        }
+    }
+
+    private Report drive(int flowsPerClient, long runSeed) throws Exception {
+        ExecutorService pool = Executors.newFixedThreadPool(clients);
+        List<Future<Client>> futures = new ArrayList<>(clients);
+        long start = System.nanoTime();
+        for (int c = 0; c < clients; c++) {
+            Client client = new Client("bench-user-" + c, new Random(runSeed + c));
+            futures.add(pool.submit(() -> client.run(flowsPerClient)));
+        }
+        Report report = new Report();
+        for (Future<Client> f : futures) report.merge(f.get());
+        report.seconds = (System.nanoTime() - start) / 1e9;
+        pool.shutdown();
+        return report;
+    }
+
+    // One simulated shopper: its own session and its own deterministic choices
+    private final class Client {
+        final String username;
+        final Random rnd;
+        final Map<String, Endpoint> endpoints = new TreeMap<>();
+        String session;
+
+        Client(String username, Random rnd) {
+            this.username = username;
+            this.rnd = rnd;
+        }
+
+        Client run(int n) {
+            for (int i = 0; i < n; i++) {
+                Flow flow = pickFlow(rnd);
+                try {
+                    if (session == null && needsSession(flow)) login();
+                    switch (flow) {
+                        case BROWSE -> {
+                            get("/api/products", "/api/products", true);
+                            get("/api/products/{id}/rating-summary", "/api/products/" + product() + "/rating-summary", false);
+                        }
+                        case SEARCH -> get("/api/products/search",
+                                "/api/products/search?keyword=" + BenchmarkApp.word(rnd), false);
+                        case FILTER -> {
+                            int min = 100 * rnd.nextInt(100);
+                            get("/api/products/filter", "/api/products/filter?categoryId=" + category()
+                                    + "&minPrice=" + min + "&maxPrice=" + (min + 5000) + "&minRating=" + rnd.nextInt(5), false);
+                        }
+                        case LOGIN -> login();
+                        case CART -> {
+                            post("/api/cart/add", "/api/cart/add?productId=" + product() + "&qty=" + (1 + rnd.nextInt(3)));
+                            get("/api/cart", "/api/cart", false);
+                        }
+                        case WISHLIST -> {
+                            post("/api/wishlist/add", "/api/wishlist/add?productId=" + product());
+                            get("/api/wishlist", "/api/wishlist", false);
+                        }
+                        case CHECKOUT -> {
+                            post("/api/cart/add", "/api/cart/add?productId=" + product() + "&qty=1");
+                            post("/api/orders/checkout", "/api/orders/checkout");
+                            get("/api/orders/history", "/api/orders/history", false);
+                        }
+                    }
+                } catch (IOException e) {
+                    endpoint("(transport)").failures++;
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    break;
+                }
+            }
+            return this;
+        }
+
+        private void login() throws IOException, InterruptedException {
+            HttpRequest req = HttpRequest.newBuilder(URI.create(base + "/api/auth/login"))
+                    .header("Content-Type", "application/x-www-form-urlencoded")
+                    .POST(HttpRequest.BodyPublishers.ofString("username=" + username + "&password=" + PASSWORD))
+                    .build();
+            HttpResponse<Void> res = send("POST /api/auth/login", req, HttpResponse.BodyHandlers.discarding());
+            // The session cookie is Secure, so HttpClient's CookieManager would not replay it over http
+            res.headers().allValues("Set-Cookie").stream()
+                    .filter(c -> c.startsWith("JSESSIONID="))
+                    .map(c -> c.substring(0, c.indexOf(';')))
+                    .findFirst()
+                    .ifPresent(c -> session = c);
+        }
+
+        private void get(String name, String path, boolean gzip) throws IOException, InterruptedException {
+            HttpRequest.Builder b = HttpRequest.newBuilder(URI.create(base + path)).GET();
+            if (gzip) b.header("Accept-Encoding", "gzip");
+            send("GET " + name, withSession(b), HttpResponse.BodyHandlers.ofByteArray());
+        }
+
+        private void post(String name, String path) throws IOException, InterruptedException {
+            HttpRequest.Builder b = HttpRequest.newBuilder(URI.create(base + path)).POST(HttpRequest.BodyPublishers.noBody());
+            send("POST " + name, withSession(b), HttpResponse.BodyHandlers.ofByteArray());
+        }
+
+        private HttpRequest withSession(HttpRequest.Builder b) {
+            if (session != null) b.header("Cookie", session);
+            return b.timeout(Duration.ofSeconds(30)).build();
+        }
+
+        private <T> HttpResponse<T> send(String name, HttpRequest req, HttpResponse.BodyHandler<T> handler)
+                throws IOException, InterruptedException {
+            Endpoint e = endpoint(name);
+            long t0 = System.nanoTime();
+            HttpResponse<T> res = http.send(req, handler);
+            e.latency.recordValue(Math.max(1, (System.nanoTime() - t0) / 1000));
+            int status = res.statusCode();
+            if (status >= 500) e.failures++;
+            else if (status >= 400) e.rejected++;
+            return res;
+        }
+
+        private Endpoint endpoint(String name) {
+            return endpoints.computeIfAbsent(name, k -> new Endpoint());
+        }
+
+        private Long product() {
+            return productIds.get(rnd.nextInt(productIds.size()));
+        }
+
+        private Long category() {
+            return categoryIds.get(rnd.nextInt(categoryIds.size()));
+        }
+    }
+
+    private static boolean needsSession(Flow flow) {
+        return flow == Flow.CART || flow == Flow.WISHLIST || flow == Flow.CHECKOUT;
+    }
+
+    private Flow pickFlow(Random rnd) {
+        int total = mix.values().stream().mapToInt(Integer::intValue).sum();
+        int roll = rnd.nextInt(total);
+        for (Map.Entry<Flow, Integer> e : mix.entrySet()) {
+            roll -= e.getValue();
+            if (roll < 0) return e.getKey();
+        }
+        throw new IllegalStateException("empty mix");
+    }
+
+    static EnumMap<Flow, Integer> parseMix(String spec) {
+        EnumMap<Flow, Integer> mix = new EnumMap<>(Flow.class);
+        for (String part : spec.split(",")) {
+            String[] kv = part.trim().split("=");
+            int weight = Integer.parseInt(kv[1].trim());
+            if (weight > 0) mix.put(Flow.valueOf(kv[0].trim().toUpperCase(Locale.ROOT)), weight);
+        }
+        if (mix.isEmpty()) throw new IllegalArgumentException("load.mix has no positive weights: " + spec);
+        return mix;
+    }
+
+    private static final class Endpoint {
+        // Microseconds, 3 significant digits, auto-resizing
+        final Histogram latency = new Histogram(3);
+        long rejected;
+        long failures;
+
+        void add(Endpoint other) {
+            latency.add(other.latency);
+            rejected += other.rejected;
+            failures += other.failures;
+        }
+    }
+
+    private static final class Report {
+        final Map<String, Endpoint> endpoints = new TreeMap<>();
+        double seconds;
+
+        void merge(Client c) {
+            c.endpoints.forEach((name, e) -> endpoints.computeIfAbsent(name, k -> new Endpoint()).add(e));
+        }
+
+        void print() {
+            long total = endpoints.values().stream().mapToLong(e -> e.latency.getTotalCount()).sum();
+            System.out.printf("%n%d requests in %.1f s → %.0f req/s%n", total, seconds, total / seconds);
+            System.out.printf("%-40s %9s %9s %6s %6s %9s %9s %9s %9s%n",
+                    "endpoint", "requests", "req/s", "4xx", "5xx", "p50 ms", "p95 ms", "p99 ms", "max ms");
+            endpoints.forEach((name, e) -> {
+                Histogram h = e.latency;
+                System.out.printf("%-40s %9d %9.1f %6d %6d %9.2f %9.2f %9.2f %9.2f%n", name, h.getTotalCount(),
+                        h.getTotalCount() / seconds, e.rejected, e.failures,
+                        h.getValueAtPercentile(50) / 1000.0, h.getValueAtPercentile(95) / 1000.0,
+                        h.getValueAtPercentile(99) / 1000.0, h.getMaxValue() / 1000.0);
+            });
+        }
+
+        void write(File dir) throws IOException {
+            if (!dir.isDirectory() && !dir.mkdirs()) throw new IOException("cannot create " + dir);
+            for (Map.Entry<String, Endpoint> e : endpoints.entrySet()) {
+                String file = e.getKey().replaceAll("[^A-Za-z0-9]+", "_").replaceAll("^_|_$", "") + ".hgrm";
+                try (PrintStream ps = new PrintStream(new FileOutputStream(new File(dir, file)))) {
+                    // Values are recorded in µs; scale so the distribution reads in ms
+                    e.getValue().latency.outputPercentileDistribution(ps, 1000.0);
+                }
+            }
+            System.out.println("HdrHistogram percentile distributions written to " + dir.getAbsolutePath());
+        }
+    }
+}
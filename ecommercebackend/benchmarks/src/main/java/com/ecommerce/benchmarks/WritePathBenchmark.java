@@ -0,0 +1,102 @@
+package com.ecommerce.benchmarks;
+
+import com.ecommerce.ecommercebackend.entity.Order;
+import com.ecommerce.ecommercebackend.entity.Product;
+import com.ecommerce.ecommercebackend.entity.Review;
+import com.ecommerce.ecommercebackend.entity.User;
+import com.ecommerce.ecommercebackend.repository.CartItemRepository;
+import com.ecommerce.ecommercebackend.repository.ProductRepository;
+import com.ecommerce.ecommercebackend.repository.UserRepository;
+import com.ecommerce.ecommercebackend.service.CartService;
+import com.ecommerce.ecommercebackend.service.OrderService;
+import com.ecommerce.ecommercebackend.service.ReviewService;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/** Service write paths: add to cart, post a review, check out a 5-line cart. */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class WritePathBenchmark {
+
+    private static final int USERS = 100;
+    private static final int CHECKOUT_LINES = 5;
+
+    @Param({"1000", "10000", "100000"})
+    public int products;
+
+    private ConfigurableApplicationContext ctx;
+    private CartService cartService;
+    private OrderService orderService;
+    private ReviewService reviewService;
+    private CartItemRepository cartRepo;
+
+    private List<Long> productIds;
+    private List<Long> userIds;
+    private Long checkoutUserId;
+    private List<User> users;
+    private List<Product> reviewTargets;
+    private final Random rnd = new Random(11);
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        ctx = BenchmarkApp.start("writes" + products);
+        BenchmarkApp.Dataset data = BenchmarkApp.seed(ctx, products, USERS, 42);
+        cartService = ctx.getBean(CartService.class);
+        orderService = ctx.getBean(OrderService.class);
+        reviewService = ctx.getBean(ReviewService.class);
+        cartRepo = ctx.getBean(CartItemRepository.class);
+
+        productIds = data.productIds();
+        // The last user is reserved for checkout, so cart adds never leak into its cart
+        userIds = data.userIds().subList(0, USERS - 1);
+        checkoutUserId = data.userIds().get(USERS - 1);
+        users = ctx.getBean(UserRepository.class).findAllById(userIds);
+        reviewTargets = ctx.getBean(ProductRepository.class).findAllById(productIds.subList(0, 100));
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        ctx.close();
+    }
+
+    @Benchmark
+    public int cartAdd() {
+        return cartService.add(pick(userIds), pick(productIds), 1);
+    }
+
+    @Benchmark
+    public Review reviewAdd() {
+        return reviewService.add(pick(users), pick(reviewTargets), 1 + rnd.nextInt(5), "Benchmark review");
+    }
+
+    @Benchmark
+    public Order checkout(CheckoutCart cart) {
+        return orderService.checkout(cart.userId);
+    }
+
+    private <T> T pick(List<T> from) {
+        return from.get(rnd.nextInt(from.size()));
+    }
+
+    // Refills the checkout user's cart before every call, outside the measured time
+    @State(Scope.Thread)
+    public static class CheckoutCart {
+        Long userId;
+
+        @Setup(Level.Invocation)
+        public void fill(WritePathBenchmark b) {
+            userId = b.checkoutUserId;
+            for (int i = 0; i < CHECKOUT_LINES; i++) {
+                b.cartRepo.upsertAdd(userId, b.pick(b.productIds), 1);
+            }
+        }
+    }
+}
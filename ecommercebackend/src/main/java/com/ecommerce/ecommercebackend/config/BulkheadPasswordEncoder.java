@@ -0,0 +1,30 @@
+package com.ecommerce.ecommercebackend.config;
+
+import com.ecommerce.ecommercebackend.service.PasswordHashingService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+// ✅ Same BCrypt encoder, but the expensive calls are admitted through the bounded hashing pool.
+// The caller still waits for the result; see PasswordHashingService.
+@RequiredArgsConstructor
+public class BulkheadPasswordEncoder implements PasswordEncoder {
+
+    private final PasswordEncoder delegate;
+    private final PasswordHashingService hashing;
+
+    @Override
+    public String encode(CharSequence rawPassword) {
+        return hashing.run(() -> delegate.encode(rawPassword));
+    }
+
+    @Override
+    public boolean matches(CharSequence rawPassword, String encodedPassword) {
+        return hashing.run(() -> delegate.matches(rawPassword, encodedPassword));
+    }
+
+    // Cheap (parses the stored cost), stays on the caller thread
+    @Override
+    public boolean upgradeEncoding(String encodedPassword) {
+        return delegate.upgradeEncoding(encodedPassword);
+    }
+}
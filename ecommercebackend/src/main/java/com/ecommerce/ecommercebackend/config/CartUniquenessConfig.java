@@ -0,0 +1,66 @@
+package com.ecommerce.ecommercebackend.config;
+
+import jakarta.persistence.EntityManagerFactory;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+
+/**
+ * cart_item had no (user_id, product_id) key, and concurrent adds left duplicate lines behind.
+ * ddl-auto=update cannot add the unique key while duplicates exist, so on MySQL fold them into
+ * the oldest line (quantities summed) and add the key once.
+ * Runs before the web server takes requests, so no add can slip a duplicate in between the merge and the key.
+ * Only the ddl-auto=update path needs it: under Flyway, V6__cart_item_unique does the same.
+ */
+@Configuration
+public class CartUniquenessConfig {
+
+    private static final Logger log = LoggerFactory.getLogger(CartUniquenessConfig.class);
+
+    static final String UNIQUE_KEY = "uk_cart_item_user_product";
+
+    private static final String DUPLICATES =
+            "SELECT MIN(id) AS keep_id, user_id, product_id, SUM(qty) AS total FROM cart_item " +
+            "GROUP BY user_id, product_id HAVING COUNT(*) > 1";
+
+    // Same hook and skips as SequenceAlignmentConfig: after the schema exists, before the connector starts
+    @Bean
+    public SmartInitializingSingleton enforceCartUniqueness(DataSource dataSource, EntityManagerFactory emf,
+                                                            Environment env) {
+        return () -> {
+            if (env.getProperty("spring.flyway.enabled", Boolean.class, true)
+                    || !env.getProperty("spring.jpa.properties.hibernate.boot.allow_jdbc_metadata_access",
+                            Boolean.class, true)) {
+                return;
+            }
+            String product;
+            try (Connection con = dataSource.getConnection()) {
+                product = con.getMetaData().getDatabaseProductName();
+            } catch (SQLException e) {
+                throw new IllegalStateException("Cannot read the database product name", e);
+            }
+            if (!"MySQL".equalsIgnoreCase(product)) return;
+
+            JdbcTemplate jdbc = new JdbcTemplate(dataSource);
+            Integer present = jdbc.queryForObject(
+                    "SELECT COUNT(*) FROM information_schema.statistics " +
+                    "WHERE table_schema = DATABASE() AND table_name = 'cart_item' AND index_name = ?",
+                    Integer.class, UNIQUE_KEY);
+            if (present != null && present > 0) return;
+
+            int merged = jdbc.update("UPDATE cart_item c JOIN (" + DUPLICATES + ") d ON c.id = d.keep_id SET c.qty = d.total");
+            int deleted = jdbc.update("DELETE c FROM cart_item c JOIN (" + DUPLICATES + ") d " +
+                    "ON c.user_id = d.user_id AND c.product_id = d.product_id AND c.id <> d.keep_id");
+            jdbc.execute("ALTER TABLE cart_item ADD CONSTRAINT " + UNIQUE_KEY + " UNIQUE (user_id, product_id)");
+            log.info("🛒 Added {} ({} duplicate cart lines merged into {})", UNIQUE_KEY, deleted, merged);
+        };
+    }
+}
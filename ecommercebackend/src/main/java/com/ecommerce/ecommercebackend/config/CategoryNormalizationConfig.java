@@ -0,0 +1,49 @@
+package com.ecommerce.ecommercebackend.config;
+
+import com.ecommerce.ecommercebackend.entity.Category;
+import com.ecommerce.ecommercebackend.service.EntityCacheEvictor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import javax.sql.DataSource;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * ddl-auto=update adds category.normalized_name empty. Fill it for rows created before it existed;
+ * a name that clashes case-insensitively with another category is logged and left for an admin to rename.
+ */
+@Configuration
+public class CategoryNormalizationConfig {
+
+    private static final Logger log = LoggerFactory.getLogger(CategoryNormalizationConfig.class);
+
+    @Bean
+    public ApplicationRunner backfillCategoryNormalizedNames(DataSource dataSource, EntityCacheEvictor caches) {
+        return args -> {
+            JdbcTemplate jdbc = new JdbcTemplate(dataSource);
+            List<Map<String, Object>> rows = jdbc.queryForList(
+                    "SELECT id, name FROM category WHERE normalized_name IS NULL AND name IS NOT NULL");
+            int filled = 0;
+            for (Map<String, Object> row : rows) {
+                String name = (String) row.get("name");
+                try {
+                    filled += jdbc.update("UPDATE category SET normalized_name = ? WHERE id = ?",
+                            Category.normalize(name), row.get("id"));
+                } catch (DataIntegrityViolationException e) {
+                    log.warn("⚠️ Category {} '{}' duplicates another category ignoring case, rename it", row.get("id"), name);
+                }
+            }
+            if (filled > 0) {
+                // Startup catalog builds may already have cached these rows without the column
+                caches.categoriesChanged();
+                log.info("📚 Backfilled normalized_name for {} categories", filled);
+            }
+        };
+    }
+}
@@ -0,0 +1,107 @@
+package com.ecommerce.ecommercebackend.config;
+
+import com.ecommerce.ecommercebackend.service.CartStore;
+import com.ecommerce.ecommercebackend.service.CatalogSnapshotService;
+import com.ecommerce.ecommercebackend.service.PasswordHashingService;
+import com.ecommerce.ecommercebackend.service.UserCache;
+import io.micrometer.common.KeyValues;
+import io.micrometer.core.aop.TimedAspect;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import io.micrometer.core.instrument.binder.jvm.ExecutorServiceMetrics;
+import net.ttddyy.dsproxy.support.ProxyDataSource;
+import net.ttddyy.dsproxy.support.ProxyDataSourceBuilder;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+import org.springframework.http.server.observation.DefaultServerRequestObservationConvention;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+import org.springframework.http.server.observation.ServerRequestObservationContext;
+import org.springframework.http.server.observation.ServerRequestObservationConvention;
+import org.springframework.lang.NonNull;
+
+import javax.sql.DataSource;
+
+/**
+ * Metrics beyond what Actuator binds on its own (JVM, Tomcat, Hikari pool, Hibernate incl. per-region
+ * second-level cache hits and misses):
+ * SQL timing through a JDBC proxy, a handler tag on http.server.requests, @Timed service methods,
+ * and hit/miss counters of the in-process caches.
+ */
+@Configuration
+public class ObservabilityConfig {
+
+    // Static: a BeanPostProcessor must not drag the rest of this config into early initialization
+    @Bean
+    public static BeanPostProcessor sqlMetricsDataSourceProxy(ObjectProvider<MeterRegistry> registry, Environment env) {
+        long slowMs = env.getProperty("observability.sql.slow-query-ms", Long.class, 100L);
+        long verySlowMs = env.getProperty("observability.sql.very-slow-query-ms", Long.class, 1000L);
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(@NonNull Object bean, @NonNull String beanName) {
+                if (!(bean instanceof DataSource ds) || bean instanceof ProxyDataSource) return bean;
+                // Only the pools: a statement through the replica routing layers must be counted once
+                if (bean instanceof DelegatingDataSource || bean instanceof ReplicaRoutingDataSource) return bean;
+                return ProxyDataSourceBuilder.create(ds)
+                        .name(beanName)
+                        .listener(new SqlMetricsListener(registry, slowMs, verySlowMs))
+                        .build();
+            }
+        };
+    }
+
+    // ✅ http.server.requests gets handler=ProductController.search next to the URI template
+    @Bean
+    public ServerRequestObservationConvention handlerTaggingConvention() {
+        return new DefaultServerRequestObservationConvention() {
+            @Override
+            @NonNull
+            public KeyValues getLowCardinalityKeyValues(@NonNull ServerRequestObservationContext context) {
+                return super.getLowCardinalityKeyValues(context)
+                        .and("handler", RequestSqlMetricsFilter.handlerName(context.getCarrier()));
+            }
+        };
+    }
+
+    // ✅ Makes @Timed on services (OrderService, CartService, ProductService) record service.calls
+    @Bean
+    public TimedAspect timedAspect(MeterRegistry registry) {
+        return new TimedAspect(registry);
+    }
+
+    @Bean
+    public MeterBinder appCacheMetrics(UserCache users, CatalogSnapshotService catalog,
+                                       PasswordHashingService hashing, CartStore cartStore) {
+        return registry -> {
+            CaffeineCacheMetrics.monitor(registry, users.nativeCache(), "users");
+
+            // Snapshot requests served from the prebuilt bytes vs rebuilt from the database; 304s on top
+            FunctionCounter.builder("catalog.snapshot.requests", catalog, CatalogSnapshotService::hitCount)
+                    .tag("result", "hit").register(registry);
+            FunctionCounter.builder("catalog.snapshot.requests", catalog, CatalogSnapshotService::rebuildCount)
+                    .tag("result", "miss").register(registry);
+            FunctionCounter.builder("catalog.snapshot.not.modified", catalog, CatalogSnapshotService::notModifiedCount)
+                    .register(registry);
+
+            new ExecutorServiceMetrics(hashing.executor(), "password.hashing", Tags.empty()).bindTo(registry);
+            FunctionCounter.builder("password.hashing.rejected", hashing, PasswordHashingService::rejectedCount)
+                    .register(registry);
+            FunctionCounter.builder("password.hashing.timed.out", hashing, PasswordHashingService::timedOutCount)
+                    .register(registry);
+
+            Gauge.builder("cart.store.cached", cartStore, CartStore::cachedCarts).register(registry);
+            Gauge.builder("cart.store.flush.lag", cartStore, CartStore::lastFlushLagMs)
+                    .baseUnit("milliseconds").register(registry);
+            Gauge.builder("cart.store.flush.batch.size", cartStore, CartStore::lastBatchSize).register(registry);
+            FunctionCounter.builder("cart.store.flushes", cartStore, CartStore::flushCount).register(registry);
+            FunctionCounter.builder("cart.store.flush.failures", cartStore, CartStore::flushFailureCount)
+                    .register(registry);
+        };
+    }
+}
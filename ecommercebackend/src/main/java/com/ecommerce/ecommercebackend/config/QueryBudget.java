@@ -0,0 +1,15 @@
+package com.ecommerce.ecommercebackend.config;
+
+import java.lang.annotation.*;
+
+/**
+ * Most SQL statements a successful call of this handler may issue (login lookups and lazy loads
+ * during serialization included). Over-budget requests are logged, counted and kept by
+ * QueryBudgetMonitor, which QueryBudgetIntegrationTest checks.
+ */
+@Target({ElementType.METHOD, ElementType.TYPE})
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+public @interface QueryBudget {
+    int value();
+}
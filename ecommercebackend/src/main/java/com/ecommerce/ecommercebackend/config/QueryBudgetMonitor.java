@@ -0,0 +1,87 @@
+package com.ecommerce.ecommercebackend.config;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Per-handler SQL totals since the last report, plus the most recent @QueryBudget violations.
+ * Logs the handlers issuing the most statements per request on a fixed interval.
+ */
+@Component
+public class QueryBudgetMonitor {
+
+    private static final Logger log = LoggerFactory.getLogger(QueryBudgetMonitor.class);
+
+    private static final int MAX_VIOLATIONS = 200;
+    private static final int TOP = 5;
+
+    public record Violation(String handler, String uri, int statements, int budget) {}
+
+    public record Offender(String handler, long requests, double avgStatements, long maxStatements, double avgDbMs) {}
+
+    private static final class Totals {
+        final LongAdder requests = new LongAdder();
+        final LongAdder statements = new LongAdder();
+        final LongAdder nanos = new LongAdder();
+        final AtomicLong max = new AtomicLong();
+    }
+
+    private final Map<String, Totals> totals = new ConcurrentHashMap<>();
+    private final Deque<Violation> violations = new ConcurrentLinkedDeque<>();
+
+    public void record(String handler, String uri, SqlRequestStats stats, QueryBudget budget, int status) {
+        Totals t = totals.computeIfAbsent(handler, k -> new Totals());
+        t.requests.increment();
+        t.statements.add(stats.statements());
+        t.nanos.add(stats.nanos());
+        t.max.accumulateAndGet(stats.statements(), Math::max);
+
+        // Error paths may do extra lookups (404 vs 403); budgets describe the successful call
+        if (budget == null || status >= 400 || stats.statements() <= budget.value()) return;
+        log.warn("🚨 {} {} issued {} SQL statements, budget is {}", handler, uri, stats.statements(), budget.value());
+        violations.addLast(new Violation(handler, uri, stats.statements(), budget.value()));
+        while (violations.size() > MAX_VIOLATIONS) violations.pollFirst();
+    }
+
+    public List<Violation> violations() {
+        return List.copyOf(violations);
+    }
+
+    public void clearViolations() {
+        violations.clear();
+    }
+
+    // Highest average statements per request first
+    public List<Offender> topOffenders(int n) {
+        List<Offender> out = new ArrayList<>();
+        totals.forEach((handler, t) -> {
+            long requests = t.requests.sum();
+            if (requests == 0) return;
+            out.add(new Offender(handler, requests, (double) t.statements.sum() / requests, t.max.get(),
+                    t.nanos.sum() / 1e6 / requests));
+        });
+        out.sort(Comparator.comparingDouble(Offender::avgStatements).reversed());
+        return out.size() > n ? out.subList(0, n) : out;
+    }
+
+    @Scheduled(fixedDelayString = "${observability.sql.top-offenders-interval-ms:300000}")
+    public void logTopOffenders() {
+        List<Offender> top = topOffenders(TOP);
+        totals.clear();
+        if (top.isEmpty()) return;
+        StringBuilder sb = new StringBuilder("📊 Top SQL offenders (avg statements / max / avg DB ms / requests):");
+        for (Offender o : top) {
+            sb.append(String.format("%n  %-45s %6.1f %5d %8.2f %7d",
+                    o.handler(), o.avgStatements(), o.maxStatements(), o.avgDbMs(), o.requests()));
+        }
+        log.info(sb.toString());
+    }
+}
@@ -0,0 +1,37 @@
+package com.ecommerce.ecommercebackend.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * rate-limit.*: token buckets per route, enforced by RateLimiter. The first route whose path pattern
+ * (and method, when methods is set) matches the request applies; requests matching none pass untouched.
+ */
+@ConfigurationProperties("rate-limit")
+public record RateLimitProperties(@DefaultValue("true") boolean enabled,
+                                  @DefaultValue("100000") long maxKeys,
+                                  @DefaultValue("10m") Duration idleEvict,
+                                  Map<String, Route> routes) {
+
+    public RateLimitProperties {
+        if (routes == null) routes = Map.of();
+    }
+
+    /**
+     * perIp applies to anonymous callers. perUser applies to the logged-in user or, with usernameParameter,
+     * to the account a login attempt names from that client IP. Either may be left out.
+     */
+    public record Route(String path, Set<String> methods, String usernameParameter, Limit perIp, Limit perUser) {
+
+        public Route {
+            if (methods == null) methods = Set.of();
+        }
+    }
+
+    // capacity requests at once, refilled evenly over period
+    public record Limit(int capacity, Duration period) {}
+}
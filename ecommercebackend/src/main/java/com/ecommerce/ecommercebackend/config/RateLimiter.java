@@ -0,0 +1,159 @@
+package com.ecommerce.ecommercebackend.config;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.http.server.PathContainer;
+import org.springframework.http.server.RequestPath;
+import org.springframework.lang.NonNull;
+import org.springframework.security.authentication.AnonymousAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.web.util.pattern.PathPattern;
+import org.springframework.web.util.pattern.PathPatternParser;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Per-route token buckets for the public endpoints that are expensive to hammer (LIKE search, BCrypt login
+ * and registration), keyed by client IP or by user; see RateLimitProperties. A login attempt is keyed by client
+ * IP and the account it names together: anyone can type a victim's username, and a bucket for the name alone
+ * would let them lock the victim out of their own account.
+ *
+ * A bucket is one AtomicLong holding the nanoTime at which it will be full again (GCRA). Taking a token moves
+ * that instant one refill interval later; a take that would move it more than capacity intervals past now is
+ * refused. One CAS per check, no locks. Buckets live in a bounded Caffeine cache per limit and are dropped once
+ * idle long enough to have refilled, so a dropped bucket and a full one behave the same.
+ */
+public class RateLimiter implements MeterBinder {
+
+    // Longest user key kept: a login form can name an account of any length
+    private static final int MAX_KEY_LENGTH = 255;
+
+    private final List<Route> routes = new ArrayList<>();
+
+    public RateLimiter(RateLimitProperties properties) {
+        if (!properties.enabled()) return;
+        Duration idle = properties.idleEvict();
+        for (Map.Entry<String, RateLimitProperties.Route> e : properties.routes().entrySet()) {
+            String name = e.getKey();
+            RateLimitProperties.Route r = e.getValue();
+            if (r.path() == null) throw new IllegalArgumentException("rate-limit.routes." + name + ".path is required");
+            routes.add(new Route(name,
+                    PathPatternParser.defaultInstance.parse(r.path()),
+                    r.methods(),
+                    r.usernameParameter(),
+                    limit(name, "ip", r.perIp(), properties.maxKeys(), idle),
+                    limit(name, "user", r.perUser(), properties.maxKeys(), idle)));
+        }
+    }
+
+    /** 0 when the request may go ahead, otherwise nanoseconds until it would be allowed. */
+    public long acquire(HttpServletRequest request) {
+        if (routes.isEmpty()) return 0;
+        Route route = match(request);
+        if (route == null) return 0;
+
+        long now = System.nanoTime();
+        String principal = principal();
+        if (principal == null && route.perIp() != null) {
+            long wait = route.perIp().take(request.getRemoteAddr(), now);
+            if (wait > 0) return wait;
+        }
+        String user = principal != null ? principal
+                : route.usernameParameter() != null ? request.getParameter(route.usernameParameter()) : null;
+        if (user == null || route.perUser() == null) return 0;
+        if (user.length() > MAX_KEY_LENGTH) user = user.substring(0, MAX_KEY_LENGTH);
+        return route.perUser().take(principal != null ? user : request.getRemoteAddr() + " " + user, now);
+    }
+
+    @Override
+    public void bindTo(@NonNull MeterRegistry registry) {
+        for (Route route : routes) {
+            for (Limit limit : new Limit[]{route.perIp(), route.perUser()}) {
+                if (limit == null) continue;
+                FunctionCounter.builder("rate.limit.rejected", limit.rejected, LongAdder::sum)
+                        .tag("route", route.name()).tag("key", limit.key).register(registry);
+                Gauge.builder("rate.limit.buckets", limit.buckets, Cache::estimatedSize)
+                        .tag("route", route.name()).tag("key", limit.key).register(registry);
+            }
+        }
+    }
+
+    private Route match(HttpServletRequest request) {
+        PathContainer path = null;
+        for (Route route : routes) {
+            if (!route.methods().isEmpty() && !route.methods().contains(request.getMethod())) continue;
+            // Parsed the way Spring MVC matches handlers, so an encoded path can't slip past its route
+            if (path == null) {
+                path = RequestPath.parse(request.getRequestURI(), request.getContextPath()).pathWithinApplication();
+            }
+            if (route.pattern().matches(path)) return route;
+        }
+        return null;
+    }
+
+    // Runs before form login: only session users are authenticated here
+    private static String principal() {
+        Authentication auth = SecurityContextHolder.getContext().getAuthentication();
+        if (auth == null || !auth.isAuthenticated() || auth instanceof AnonymousAuthenticationToken) return null;
+        return auth.getName();
+    }
+
+    private static Limit limit(String route, String key, RateLimitProperties.Limit config, long maxKeys, Duration idle) {
+        if (config == null) return null;
+        if (config.capacity() < 1 || config.period() == null || config.period().isNegative() || config.period().isZero()) {
+            throw new IllegalArgumentException("rate-limit.routes." + route + ".per-" + key
+                    + " needs capacity >= 1 and a positive period");
+        }
+        long interval = config.period().toNanos() / config.capacity();
+        Duration evictAfter = idle.compareTo(config.period()) > 0 ? idle : config.period();
+        return new Limit(key, interval, interval * config.capacity(), Caffeine.newBuilder()
+                .maximumSize(maxKeys)
+                .expireAfterAccess(evictAfter)
+                .build());
+    }
+
+    private record Route(String name, PathPattern pattern, Set<String> methods, String usernameParameter,
+                         Limit perIp, Limit perUser) {}
+
+    private static final class Limit {
+        final String key;
+        final long interval;
+        final long burst;
+        final Cache<String, AtomicLong> buckets;
+        final LongAdder rejected = new LongAdder();
+
+        Limit(String key, long interval, long burst, Cache<String, AtomicLong> buckets) {
+            this.key = key;
+            this.interval = interval;
+            this.burst = burst;
+            this.buckets = buckets;
+        }
+
+        long take(String caller, long now) {
+            AtomicLong fullAt = buckets.getIfPresent(caller);
+            if (fullAt == null) fullAt = buckets.get(caller, k -> new AtomicLong(now - burst));
+            while (true) {
+                long full = fullAt.get();
+                long next = Math.max(full, now) + interval;
+                long wait = next - now - burst;
+                if (wait > 0) {
+                    rejected.increment();
+                    return wait;
+                }
+                if (fullAt.compareAndSet(full, next)) return 0;
+            }
+        }
+    }
+}
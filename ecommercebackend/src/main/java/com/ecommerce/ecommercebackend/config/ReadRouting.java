@@ -0,0 +1,39 @@
+package com.ecommerce.ecommercebackend.config;
+
+import java.util.function.Supplier;
+
+/**
+ * Whether reads on the current thread must see the primary's latest writes.
+ * With a replica configured (ReplicaRoutingConfig), read-only transactions go to it unless the thread
+ * is pinned here: by ReadYourWritesFilter for writes and for sessions that just wrote, or by onPrimary.
+ */
+public final class ReadRouting {
+
+    private static final ThreadLocal<Boolean> PINNED = new ThreadLocal<>();
+
+    private ReadRouting() {
+    }
+
+    public static void pinToPrimary() {
+        PINNED.set(Boolean.TRUE);
+    }
+
+    public static void release() {
+        PINNED.remove();
+    }
+
+    public static boolean isPinned() {
+        return PINNED.get() != null;
+    }
+
+    // For loads that feed long-lived state (snapshots, in-memory indexes), which a lagging replica would leave stale
+    public static <T> T onPrimary(Supplier<T> read) {
+        if (isPinned()) return read.get();
+        pinToPrimary();
+        try {
+            return read.get();
+        } finally {
+            release();
+        }
+    }
+}
@@ -0,0 +1,65 @@
+package com.ecommerce.ecommercebackend.config;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.servlet.http.HttpSession;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.lang.NonNull;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.Set;
+
+/**
+ * Read-your-writes on top of replica routing. A write request (cart, checkout, login, ...) reads from the
+ * primary throughout, and its session keeps reading from the primary for app.datasource.replica.sticky-ms
+ * afterwards, longer than the replica normally lags. Runs before Spring Security so login lookups are covered.
+ */
+@Order(Ordered.HIGHEST_PRECEDENCE + 3)
+public class ReadYourWritesFilter extends OncePerRequestFilter {
+
+    static final String STICKY_UNTIL = ReadYourWritesFilter.class.getName() + ".stickyUntil";
+
+    private static final Set<String> READS = Set.of("GET", "HEAD", "OPTIONS", "TRACE");
+
+    private final long stickyMs;
+
+    public ReadYourWritesFilter(long stickyMs) {
+        this.stickyMs = stickyMs;
+    }
+
+    @Override
+    protected void doFilterInternal(@NonNull HttpServletRequest request, @NonNull HttpServletResponse response,
+                                    @NonNull FilterChain chain) throws ServletException, IOException {
+        boolean write = !READS.contains(request.getMethod());
+        if (write || sticky(request.getSession(false))) ReadRouting.pinToPrimary();
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            ReadRouting.release();
+            // Login swaps the session and logout drops it, so look it up again
+            if (write) stick(request.getSession(false));
+        }
+    }
+
+    private static boolean sticky(HttpSession session) {
+        if (session == null) return false;
+        try {
+            return session.getAttribute(STICKY_UNTIL) instanceof Long until && until > System.currentTimeMillis();
+        } catch (IllegalStateException invalidated) {
+            return false;
+        }
+    }
+
+    private void stick(HttpSession session) {
+        if (session == null) return;
+        try {
+            session.setAttribute(STICKY_UNTIL, System.currentTimeMillis() + stickyMs);
+        } catch (IllegalStateException invalidated) {
+            // logged out: nothing to stick to
+        }
+    }
+}
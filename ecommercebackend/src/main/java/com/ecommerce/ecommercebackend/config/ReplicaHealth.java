@@ -0,0 +1,85 @@
+package com.ecommerce.ecommercebackend.config;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+/**
+ * Whether the read replica may serve reads. Probed every app.datasource.replica.health-interval-ms and
+ * marked down at once when a connection attempt fails, so reads fall back to the primary until a probe succeeds.
+ * With app.datasource.replica.max-lag-seconds > 0 (MySQL), a replica further behind than that counts as down too.
+ */
+public class ReplicaHealth {
+
+    private static final Logger log = LoggerFactory.getLogger(ReplicaHealth.class);
+
+    private final DataSource replica;
+    private final long maxLagSeconds;
+
+    private volatile boolean up = true;
+    private volatile String reason;
+
+    public ReplicaHealth(DataSource replica, long maxLagSeconds) {
+        this.replica = replica;
+        this.maxLagSeconds = maxLagSeconds;
+    }
+
+    public boolean isUp() {
+        return up;
+    }
+
+    public String reason() {
+        return reason;
+    }
+
+    public void markDown(Exception e) {
+        down(e.getMessage());
+    }
+
+    @Scheduled(fixedDelayString = "${app.datasource.replica.health-interval-ms:5000}")
+    public void check() {
+        try (Connection con = replica.getConnection()) {
+            if (!con.isValid(2)) {
+                down("connection not valid");
+                return;
+            }
+            if (maxLagSeconds > 0) {
+                Long lag = lagSeconds(con);
+                if (lag == null) {
+                    down("replication not running");
+                    return;
+                }
+                if (lag > maxLagSeconds) {
+                    down("replica " + lag + " s behind");
+                    return;
+                }
+            }
+            if (!up) log.info("✅ Read replica back up, reads return to it");
+            up = true;
+            reason = null;
+        } catch (SQLException e) {
+            down(e.getMessage());
+        }
+    }
+
+    private void down(String why) {
+        if (up) log.warn("⚠️ Read replica down ({}), reads fall back to the primary", why);
+        reason = why;
+        up = false;
+    }
+
+    // Seconds_Behind_Source (MySQL 8.0.22+), null when replication is stopped or this is not a replica
+    private static Long lagSeconds(Connection con) throws SQLException {
+        try (Statement st = con.createStatement(); ResultSet rs = st.executeQuery("SHOW REPLICA STATUS")) {
+            if (!rs.next()) return null;
+            long lag = rs.getLong("Seconds_Behind_Source");
+            return rs.wasNull() ? null : lag;
+        }
+    }
+}
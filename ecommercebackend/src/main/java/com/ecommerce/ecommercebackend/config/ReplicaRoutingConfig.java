@@ -0,0 +1,104 @@
+package com.ecommerce.ecommercebackend.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.jdbc.DataSourceBuilder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+
+/**
+ * Read/write split, on when app.datasource.replica.url is set.
+ *
+ * The application DataSource is a LazyConnectionDataSourceProxy over the primary pool: a connection is
+ * only fetched at the first statement, and one already marked read-only by then
+ * (@Transactional(readOnly = true) services and query methods, inherited CRUD finders) comes from
+ * ReplicaRoutingDataSource instead. Derived and @Query methods get no transaction unless they declare one.
+ * Writes, and reads inside write transactions, stay on the primary.
+ *
+ * The replica shares the primary's driver and, unless app.datasource.replica.username/password are set,
+ * its credentials. Pool settings go under app.datasource.replica.hikari.*.
+ *
+ * An AOT build settles this condition at build time, so an AOT jar only routes reads if it was built with the
+ * property set (READ_REPLICA=true in the Dockerfile); StartupConfig refuses to start on a mismatch.
+ */
+@Configuration
+@ConditionalOnProperty(name = "app.datasource.replica.url")
+public class ReplicaRoutingConfig {
+
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource primaryDataSource(DataSourceProperties properties) {
+        HikariDataSource ds = properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        ds.setPoolName("primary");
+        return ds;
+    }
+
+    @Bean
+    @ConfigurationProperties("app.datasource.replica.hikari")
+    public HikariDataSource replicaDataSource(DataSourceProperties properties,
+                                              @Value("${app.datasource.replica.url}") String url,
+                                              @Value("${app.datasource.replica.username:${spring.datasource.username:}}") String username,
+                                              @Value("${app.datasource.replica.password:${spring.datasource.password:}}") String password) {
+        HikariDataSource ds = DataSourceBuilder.create()
+                .type(HikariDataSource.class)
+                .driverClassName(properties.determineDriverClassName())
+                .url(url)
+                .username(username)
+                .password(password)
+                .build();
+        ds.setPoolName("replica");
+        ds.setReadOnly(true);
+        return ds;
+    }
+
+    @Bean
+    public ReplicaHealth replicaHealth(@Qualifier("replicaDataSource") DataSource replica,
+                                       @Value("${app.datasource.replica.max-lag-seconds:0}") long maxLagSeconds) {
+        return new ReplicaHealth(replica, maxLagSeconds);
+    }
+
+    @Bean
+    public ReplicaRoutingDataSource replicaRouting(@Qualifier("primaryDataSource") DataSource primary,
+                                                   @Qualifier("replicaDataSource") DataSource replica,
+                                                   ReplicaHealth health) {
+        return new ReplicaRoutingDataSource(primary, replica, health);
+    }
+
+    // ✅ What JPA, JdbcTemplate and Flyway get
+    @Bean
+    @Primary
+    public DataSource dataSource(@Qualifier("primaryDataSource") DataSource primary, ReplicaRoutingDataSource reads) {
+        LazyConnectionDataSourceProxy proxy = new LazyConnectionDataSourceProxy(primary);
+        proxy.setReadOnlyDataSource(reads);
+        return proxy;
+    }
+
+    @Bean
+    public ReadYourWritesFilter readYourWritesFilter(@Value("${app.datasource.replica.sticky-ms:5000}") long stickyMs) {
+        return new ReadYourWritesFilter(stickyMs);
+    }
+
+    @Bean
+    public MeterBinder replicaRoutingMetrics(ReplicaRoutingDataSource reads, ReplicaHealth health) {
+        return registry -> {
+            Gauge.builder("datasource.replica.up", health, h -> h.isUp() ? 1 : 0).register(registry);
+            FunctionCounter.builder("datasource.reads", reads, ReplicaRoutingDataSource::replicaReads)
+                    .tag("target", "replica").register(registry);
+            FunctionCounter.builder("datasource.reads", reads, ReplicaRoutingDataSource::primaryReads)
+                    .tag("target", "primary").register(registry);
+            FunctionCounter.builder("datasource.replica.fallbacks", reads, ReplicaRoutingDataSource::fallbacks)
+                    .register(registry);
+        };
+    }
+}
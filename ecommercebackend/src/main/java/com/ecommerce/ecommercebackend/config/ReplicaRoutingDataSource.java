@@ -0,0 +1,57 @@
+package com.ecommerce.ecommercebackend.config;
+
+import org.springframework.jdbc.datasource.AbstractDataSource;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Where read-only connections come from: the replica, unless the thread is pinned to the primary
+ * (ReadRouting) or the replica is down (ReplicaHealth). A replica connection that cannot be opened
+ * marks it down and the read goes to the primary instead of failing.
+ */
+public class ReplicaRoutingDataSource extends AbstractDataSource {
+
+    private final DataSource primary;
+    private final DataSource replica;
+    private final ReplicaHealth health;
+
+    private final LongAdder replicaReads = new LongAdder();
+    private final LongAdder primaryReads = new LongAdder();
+    private final LongAdder fallbacks = new LongAdder();
+
+    public ReplicaRoutingDataSource(DataSource primary, DataSource replica, ReplicaHealth health) {
+        this.primary = primary;
+        this.replica = replica;
+        this.health = health;
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        if (ReadRouting.isPinned() || !health.isUp()) {
+            primaryReads.increment();
+            return primary.getConnection();
+        }
+        try {
+            Connection con = replica.getConnection();
+            replicaReads.increment();
+            return con;
+        } catch (SQLException e) {
+            health.markDown(e);
+            fallbacks.increment();
+            primaryReads.increment();
+            return primary.getConnection();
+        }
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        throw new UnsupportedOperationException("Credentials come from the primary and replica pools");
+    }
+
+    public long replicaReads() { return replicaReads.sum(); }
+    public long primaryReads() { return primaryReads.sum(); }
+    public long fallbacks() { return fallbacks.sum(); }
+}
@@ -0,0 +1,114 @@
+package com.ecommerce.ecommercebackend.config;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.lang.NonNull;
+import org.springframework.security.web.util.OnCommittedResponseWrapper;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.io.IOException;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * SQL statements and DB time per request, tagged by the controller method that served it.
+ * Runs outside the security chain so the user lookups done at login are counted too.
+ *
+ * With observability.sql.debug-headers=true each response also carries X-Query-Count and
+ * X-DB-Time-Ms, set just before the response commits (statements issued while the body is
+ * still being written, e.g. by a streamed export, are not in them). Handlers annotated with
+ * @QueryBudget are checked by QueryBudgetMonitor.
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE + 2)
+public class RequestSqlMetricsFilter extends OncePerRequestFilter {
+
+    public static final String QUERY_COUNT_HEADER = "X-Query-Count";
+    public static final String DB_TIME_HEADER = "X-DB-Time-Ms";
+
+    private final MeterRegistry registry;
+    private final QueryBudgetMonitor monitor;
+    private final boolean debugHeaders;
+
+    public RequestSqlMetricsFilter(MeterRegistry registry,
+                                   QueryBudgetMonitor monitor,
+                                   @Value("${observability.sql.debug-headers:false}") boolean debugHeaders) {
+        this.registry = registry;
+        this.monitor = monitor;
+        this.debugHeaders = debugHeaders;
+    }
+
+    @Override
+    protected void doFilterInternal(@NonNull HttpServletRequest request, @NonNull HttpServletResponse response,
+                                    @NonNull FilterChain chain) throws ServletException, IOException {
+        SqlRequestStats stats = SqlRequestStats.begin();
+        DebugHeaders debug = debugHeaders ? new DebugHeaders(response, stats) : null;
+        try {
+            chain.doFilter(request, debug != null ? debug : response);
+        } finally {
+            SqlRequestStats.end();
+            // Nothing forced a commit while the handler ran: the container commits after we return
+            if (debug != null && !response.isCommitted()) debug.writeHeaders();
+            String handler = handlerName(request);
+            monitor.record(handler, request.getRequestURI(), stats, budget(request), response.getStatus());
+            DistributionSummary.builder("http.server.requests.db.statements")
+                    .description("SQL statements issued while serving one request")
+                    .tag("handler", handler)
+                    .register(registry)
+                    .record(stats.statements());
+            Timer.builder("http.server.requests.db.time")
+                    .description("Time spent in JDBC while serving one request")
+                    .tag("handler", handler)
+                    .register(registry)
+                    .record(stats.nanos(), TimeUnit.NANOSECONDS);
+        }
+    }
+
+    // "ProductController.search"; "none" when no controller method ran (static files, 404s, login, rejected by security)
+    public static String handlerName(HttpServletRequest request) {
+        Object handler = request.getAttribute(HandlerMapping.BEST_MATCHING_HANDLER_ATTRIBUTE);
+        if (handler instanceof HandlerMethod m) {
+            return m.getBeanType().getSimpleName() + "." + m.getMethod().getName();
+        }
+        return "none";
+    }
+
+    private static QueryBudget budget(HttpServletRequest request) {
+        Object handler = request.getAttribute(HandlerMapping.BEST_MATCHING_HANDLER_ATTRIBUTE);
+        if (!(handler instanceof HandlerMethod m)) return null;
+        QueryBudget budget = m.getMethodAnnotation(QueryBudget.class);
+        return budget != null ? budget : m.getBeanType().getAnnotation(QueryBudget.class);
+    }
+
+    // Headers can't be added once the body starts going out, so write them on the first flush/close/error
+    private static final class DebugHeaders extends OnCommittedResponseWrapper {
+        private final SqlRequestStats stats;
+
+        DebugHeaders(HttpServletResponse response, SqlRequestStats stats) {
+            super(response);
+            this.stats = stats;
+        }
+
+        @Override
+        protected void onResponseCommitted() {
+            writeHeaders();
+        }
+
+        void writeHeaders() {
+            HttpServletResponse response = (HttpServletResponse) getResponse();
+            response.setHeader(QUERY_COUNT_HEADER, Integer.toString(stats.statements()));
+            response.setHeader(DB_TIME_HEADER, String.format(Locale.ROOT, "%.2f", stats.millis()));
+        }
+    }
+}
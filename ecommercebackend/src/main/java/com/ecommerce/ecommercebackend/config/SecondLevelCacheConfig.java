@@ -0,0 +1,31 @@
+package com.ecommerce.ecommercebackend.config;
+
+import com.github.benmanes.caffeine.jcache.spi.CaffeineCachingProvider;
+import org.hibernate.cache.jcache.ConfigSettings;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.cache.Caching;
+import javax.cache.spi.CachingProvider;
+import java.net.URI;
+import java.util.UUID;
+
+/**
+ * Hibernate closes its JCache CacheManager when the EntityManagerFactory shuts down. The provider's default
+ * manager is one per JVM, so a second context (tests, a refresh) would be left with closed caches.
+ * Each EntityManagerFactory gets a manager of its own instead; regions still come from application.conf.
+ */
+@Configuration
+public class SecondLevelCacheConfig {
+
+    @Bean
+    public HibernatePropertiesCustomizer ownedJCacheManager() {
+        return props -> {
+            CachingProvider provider = Caching.getCachingProvider(CaffeineCachingProvider.class.getName());
+            // Any URI that isn't a file or classpath resource makes Caffeine load application.conf
+            URI uri = URI.create("hibernate-l2:" + UUID.randomUUID());
+            props.put(ConfigSettings.CACHE_MANAGER, provider.getCacheManager(uri, provider.getDefaultClassLoader()));
+        };
+    }
+}
@@ -1,30 +1,71 @@
 package com.ecommerce.ecommercebackend.config;
 
+import com.ecommerce.ecommercebackend.exception.PasswordHashingRejectedException;
 import com.ecommerce.ecommercebackend.repository.UserRepository;
+import com.ecommerce.ecommercebackend.service.PasswordHashingService;
+import com.ecommerce.ecommercebackend.service.UserCache;
 import lombok.RequiredArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.core.annotation.Order;
 import org.springframework.security.config.Customizer;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
+import org.springframework.security.config.http.SessionCreationPolicy;
+import org.springframework.security.core.userdetails.UserDetailsPasswordService;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.security.web.SecurityFilterChain;
+import org.springframework.security.web.authentication.UsernamePasswordAuthenticationFilter;
 
 @Configuration
 @RequiredArgsConstructor
+@EnableConfigurationProperties(RateLimitProperties.class)
 public class SecurityConfig {
 
+    private static final Logger log = LoggerFactory.getLogger(SecurityConfig.class);
+
+    private static final int MAX_BCRYPT_STRENGTH = 14;
+
     private final UserRepository userRepository;
+    private final UserCache userCache;
+
+    // ✅ At most hash-threads BCrypt calls burn CPU at once; the request thread waits for its turn
+    @Bean
+    public PasswordEncoder passwordEncoder(PasswordHashingService hashing,
+                                           @Value("${security.password.bcrypt-strength:10}") int strength,
+                                           @Value("${security.password.target-hash-ms:0}") long targetHashMs) {
+        int cost = targetHashMs > 0 ? calibrate(strength, targetHashMs) : strength;
+        log.info("🔐 BCrypt strength {}", cost);
+        return new BulkheadPasswordEncoder(new BCryptPasswordEncoder(cost), hashing);
+    }
 
+    // ✅ Rehash-on-login: DaoAuthenticationProvider calls this when the stored cost is below the current one
     @Bean
-    public PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder();
+    public UserDetailsPasswordService userDetailsPasswordService() {
+        return (user, newPassword) -> {
+            userRepository.findByUsername(user.getUsername()).ifPresent(u -> {
+                u.setPassword(newPassword);
+                userRepository.save(u);
+            });
+            return org.springframework.security.core.userdetails.User.withUserDetails(user)
+                    .password(newPassword)
+                    .build();
+        };
     }
 
     @Bean
     public UserDetailsService userDetailsService() {
+        // Login is the one place that must read the row (password hash); it also warms UserCache
         return username -> userRepository.findByUsername(username)
+                .map(u -> {
+                    userCache.put(u);
+                    return u;
+                })
                 .map(u -> org.springframework.security.core.userdetails.User
                         .withUsername(u.getUsername())
                         .password(u.getPassword())
@@ -33,8 +74,32 @@ public class SecurityConfig {
                 .orElseThrow(() -> new RuntimeException("User not found: " + username));
     }
 
+    // ✅ Token buckets for search, login and register (rate-limit.*); also a MeterBinder for its rejections
     @Bean
-    public SecurityFilterChain filterChain(HttpSecurity http) throws Exception {
+    public RateLimiter rateLimiter(RateLimitProperties properties) {
+        return new RateLimiter(properties);
+    }
+
+    // ✅ Actuator: health is open for the platform's probes, everything else (Prometheus scrape included) is ADMIN.
+    // Scrapers can't do form login, so this chain takes HTTP Basic and keeps no session.
+    @Bean
+    @Order(1)
+    public SecurityFilterChain actuatorFilterChain(HttpSecurity http) throws Exception {
+        http
+            .securityMatcher("/actuator/**")
+            .csrf(csrf -> csrf.disable())
+            .authorizeHttpRequests(auth -> auth
+                .requestMatchers("/actuator/health", "/actuator/health/**").permitAll()
+                .anyRequest().hasRole("ADMIN")
+            )
+            .httpBasic(Customizer.withDefaults())
+            .sessionManagement(session -> session.sessionCreationPolicy(SessionCreationPolicy.STATELESS));
+        return http.build();
+    }
+
+    @Bean
+    @Order(2)
+    public SecurityFilterChain filterChain(HttpSecurity http, RateLimiter rateLimiter) throws Exception {
         http
             // ✅ Enable the global CORS configuration (from CorsConfig.java)
             .cors(Customizer.withDefaults())
@@ -67,7 +132,15 @@ public class SecurityConfig {
             .formLogin(form -> form
                 .loginProcessingUrl("/api/auth/login")
                 .successHandler((req, res, auth) -> res.setStatus(200))
-                .failureHandler((req, res, ex) -> res.setStatus(401))
+                .failureHandler((req, res, ex) -> {
+                    if (ex instanceof PasswordHashingRejectedException) {
+                        // Hashing pool is saturated: tell the client to back off instead of "wrong password"
+                        res.setHeader("Retry-After", "1");
+                        res.setStatus(503);
+                    } else {
+                        res.setStatus(401);
+                    }
+                })
                 .permitAll()
             )
 
@@ -85,9 +158,28 @@ public class SecurityConfig {
                 .sessionFixation().migrateSession()
             );
 
+        // ✅ Public endpoints that cost a LIKE scan or a BCrypt hash are rate limited before login runs
+        http.addFilterBefore(new RateLimitFilter(rateLimiter), UsernamePasswordAuthenticationFilter.class);
+
         // ✅ Allow frames for H2/Swagger
         http.headers(headers -> headers.frameOptions(frame -> frame.disable()));
 
         return http.build();
     }
+
+    // Highest cost (never below the configured floor) whose hash still fits the latency target on this host
+    private static int calibrate(int floor, long targetMs) {
+        new BCryptPasswordEncoder(4).encode("warmup");
+        int chosen = floor;
+        for (int s = floor; s <= MAX_BCRYPT_STRENGTH; s++) {
+            long start = System.nanoTime();
+            new BCryptPasswordEncoder(s).encode("calibration");
+            long ms = (System.nanoTime() - start) / 1_000_000;
+            if (ms > targetMs) break;
+            chosen = s;
+            // Each step doubles the work, so stop before the next one would overshoot
+            if (ms * 2 > targetMs) break;
+        }
+        return chosen;
+    }
 }
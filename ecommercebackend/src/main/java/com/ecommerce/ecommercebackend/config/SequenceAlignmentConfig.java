@@ -0,0 +1,65 @@
+package com.ecommerce.ecommercebackend.config;
+
+import jakarta.persistence.EntityManagerFactory;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.Map;
+
+/**
+ * orders / order_item used IDENTITY before moving to pooled sequences.
+ * On MySQL Hibernate emulates a sequence with a one-row table starting at 1, so push it past the existing ids.
+ * Runs once every singleton exists, i.e. after the schema is in place and before the web server takes requests.
+ */
+@Configuration
+public class SequenceAlignmentConfig {
+
+    private static final Logger log = LoggerFactory.getLogger(SequenceAlignmentConfig.class);
+
+    private static final int ALLOCATION_SIZE = 50;
+
+    // sequence table -> entity table
+    private static final Map<String, String> SEQUENCES = Map.of(
+            "orders_seq", "orders",
+            "order_item_seq", "order_item"
+    );
+
+    // The EntityManagerFactory parameter makes sure the ddl-auto schema exists even with lazy init.
+    // Skipped under Flyway (V3 seeds the sequences) and when Hibernate may not touch the database at all,
+    // as in the Dockerfile's CDS training run, which has no database to connect to.
+    @Bean
+    public SmartInitializingSingleton alignSequences(DataSource dataSource, EntityManagerFactory emf, Environment env) {
+        return () -> {
+            if (env.getProperty("spring.flyway.enabled", Boolean.class, true)
+                    || !env.getProperty("spring.jpa.properties.hibernate.boot.allow_jdbc_metadata_access",
+                            Boolean.class, true)) {
+                return;
+            }
+            String product;
+            try (Connection con = dataSource.getConnection()) {
+                product = con.getMetaData().getDatabaseProductName();
+            } catch (SQLException e) {
+                throw new IllegalStateException("Cannot read the database product name", e);
+            }
+            if (!"MySQL".equalsIgnoreCase(product)) return;
+
+            JdbcTemplate jdbc = new JdbcTemplate(dataSource);
+            SEQUENCES.forEach((seq, table) -> {
+                Long maxId = jdbc.queryForObject("SELECT COALESCE(MAX(id), 0) FROM " + table, Long.class);
+                long floor = (maxId == null ? 0 : maxId) + ALLOCATION_SIZE + 1;
+                int updated = jdbc.update("UPDATE " + seq + " SET next_val = ? WHERE next_val < ?", floor, floor);
+                if (updated > 0) {
+                    log.info("🔢 Moved {} to {} (max {}.id = {})", seq, floor, table, maxId);
+                }
+            });
+        };
+    }
+}
@@ -0,0 +1,80 @@
+package com.ecommerce.ecommercebackend.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import net.ttddyy.dsproxy.ExecutionInfo;
+import net.ttddyy.dsproxy.QueryInfo;
+import net.ttddyy.dsproxy.listener.QueryExecutionListener;
+import net.ttddyy.dsproxy.listener.QueryUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Times every JDBC execution: a db.statements timer per statement type, the per-request totals
+ * in SqlRequestStats, and a slow-query log (WARN above slowMs, ERROR above verySlowMs).
+ * A JDBC batch counts as one statement, since it is one round trip.
+ */
+public class SqlMetricsListener implements QueryExecutionListener {
+
+    private static final Logger slowLog = LoggerFactory.getLogger("sql.slow");
+
+    private static final String START = "sqlMetrics.start";
+    private static final int MAX_LOGGED_SQL = 1000;
+
+    // The registry depends on the DataSource (pool metrics), so it is looked up on first use
+    private final ObjectProvider<MeterRegistry> registry;
+    private final long slowMs;
+    private final long verySlowMs;
+
+    public SqlMetricsListener(ObjectProvider<MeterRegistry> registry, long slowMs, long verySlowMs) {
+        this.registry = registry;
+        this.slowMs = slowMs;
+        this.verySlowMs = verySlowMs;
+    }
+
+    @Override
+    public void beforeQuery(ExecutionInfo exec, List<QueryInfo> queries) {
+        exec.addCustomValue(START, System.nanoTime());
+    }
+
+    @Override
+    public void afterQuery(ExecutionInfo exec, List<QueryInfo> queries) {
+        Long start = exec.getCustomValue(START, Long.class);
+        long nanos = start != null ? System.nanoTime() - start : TimeUnit.MILLISECONDS.toNanos(exec.getElapsedTime());
+
+        SqlRequestStats stats = SqlRequestStats.current();
+        if (stats != null) stats.record(nanos);
+
+        String sql = queries.isEmpty() ? "" : queries.get(0).getQuery();
+        MeterRegistry r = registry.getIfAvailable();
+        if (r != null) {
+            Timer.builder("db.statements")
+                    .description("JDBC executions, batches counted once")
+                    .tag("type", QueryUtils.getQueryType(sql).name().toLowerCase(Locale.ROOT))
+                    .tag("outcome", exec.isSuccess() ? "success" : "error")
+                    .tag("datasource", exec.getDataSourceName() != null ? exec.getDataSourceName() : "")
+                    .register(r)
+                    .record(nanos, TimeUnit.NANOSECONDS);
+        }
+
+        long ms = TimeUnit.NANOSECONDS.toMillis(nanos);
+        if (ms >= verySlowMs) {
+            slowLog.error("🐢 {} ms{} on {}: {}", ms, batch(exec), exec.getDataSourceName(), truncate(sql));
+        } else if (ms >= slowMs) {
+            slowLog.warn("🐢 {} ms{} on {}: {}", ms, batch(exec), exec.getDataSourceName(), truncate(sql));
+        }
+    }
+
+    private static String batch(ExecutionInfo exec) {
+        return exec.isBatch() ? " (batch of " + exec.getBatchSize() + ")" : "";
+    }
+
+    private static String truncate(String sql) {
+        return sql.length() <= MAX_LOGGED_SQL ? sql : sql.substring(0, MAX_LOGGED_SQL) + "…";
+    }
+}
@@ -0,0 +1,48 @@
+package com.ecommerce.ecommercebackend.config;
+
+/**
+ * SQL statements and DB time of the HTTP request running on the current thread.
+ * Opened and closed by RequestSqlMetricsFilter, fed by SqlMetricsListener.
+ */
+public final class SqlRequestStats {
+
+    private static final ThreadLocal<SqlRequestStats> CURRENT = new ThreadLocal<>();
+
+    private int statements;
+    private long nanos;
+
+    private SqlRequestStats() {
+    }
+
+    public static SqlRequestStats begin() {
+        SqlRequestStats s = new SqlRequestStats();
+        CURRENT.set(s);
+        return s;
+    }
+
+    // null outside a request (startup, scheduled flushes, async export threads)
+    public static SqlRequestStats current() {
+        return CURRENT.get();
+    }
+
+    public static void end() {
+        CURRENT.remove();
+    }
+
+    void record(long elapsedNanos) {
+        statements++;
+        nanos += elapsedNanos;
+    }
+
+    public int statements() {
+        return statements;
+    }
+
+    public long nanos() {
+        return nanos;
+    }
+
+    public double millis() {
+        return nanos / 1e6;
+    }
+}
@@ -0,0 +1,45 @@
+package com.ecommerce.ecommercebackend.config;
+
+import org.springframework.aot.AotDetector;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.boot.LazyInitializationExcludeFilter;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.MethodIntrospector;
+import org.springframework.core.annotation.AnnotatedElementUtils;
+import org.springframework.core.env.Environment;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import java.lang.reflect.Method;
+
+/**
+ * spring.main.lazy-initialization (fast-startup profile) only registers a bean's @Scheduled methods
+ * once the bean is first used. Keep those beans eager so cart flushes, rating reconciliation and the
+ * SQL offender report run on an instance that has not served the matching endpoints yet.
+ * Also guards the AOT build against runtime settings it could not take into account.
+ */
+@Configuration
+public class StartupConfig {
+
+    @Bean
+    public static LazyInitializationExcludeFilter scheduledBeansStayEager() {
+        return (beanName, definition, beanType) -> beanType != null && !MethodIntrospector.selectMethods(beanType,
+                (MethodIntrospector.MetadataLookup<Scheduled>) (Method m) ->
+                        AnnotatedElementUtils.findMergedAnnotation(m, Scheduled.class)).isEmpty();
+    }
+
+    // ✅ AOT fixed ReplicaRoutingConfig's @ConditionalOnProperty at build time: fail instead of silently
+    // sending every read to the primary when the replica URL arrives only at runtime
+    @Bean
+    public SmartInitializingSingleton replicaRoutingMatchesBuild(Environment env,
+                                                                 ObjectProvider<ReplicaRoutingDataSource> routing) {
+        return () -> {
+            if (AotDetector.useGeneratedArtifacts() && env.containsProperty("app.datasource.replica.url")
+                    && routing.getIfAvailable() == null) {
+                throw new IllegalStateException("app.datasource.replica.url is set but this AOT build has no replica "
+                        + "routing; rebuild with READ_REPLICA=true (see Dockerfile)");
+            }
+        };
+    }
+}
@@ -1,58 +1,170 @@
 package com.ecommerce.ecommercebackend.controller;
 
+import com.ecommerce.ecommercebackend.config.QueryBudgetMonitor;
+import com.ecommerce.ecommercebackend.dto.ImportReport;
+import com.ecommerce.ecommercebackend.dto.OrderHistoryPage;
 import com.ecommerce.ecommercebackend.entity.Product;
-import com.ecommerce.ecommercebackend.repository.ProductRepository;
+import com.ecommerce.ecommercebackend.service.CartStore;
+import com.ecommerce.ecommercebackend.service.CatalogSnapshotService;
+import com.ecommerce.ecommercebackend.service.ExportService;
+import com.ecommerce.ecommercebackend.service.OrderService;
+import com.ecommerce.ecommercebackend.service.ProductImportService;
+import com.ecommerce.ecommercebackend.service.ProductService;
+import com.ecommerce.ecommercebackend.service.ReviewService;
+import jakarta.servlet.http.HttpServletRequest;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.async.WebAsyncUtils;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
-import java.util.List;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.zip.GZIPOutputStream;
 
 @RestController
 @RequestMapping("/api/admin")
 @RequiredArgsConstructor
 public class AdminController {
 
-    private final ProductRepository productRepo;
+    private final ProductService productService;
+    private final CatalogSnapshotService catalog;
+    private final ReviewService reviewService;
+    private final OrderService orderService;
+    private final CartStore cartStore;
+    private final ProductImportService importService;
+    private final ExportService exportService;
+    private final QueryBudgetMonitor queryBudgets;
+
+    // Streamed exports may run far longer than the async timeout every other request keeps
+    @Value("${exports.request-timeout:30m}")
+    private Duration exportTimeout;
 
     // ✅ View all products
     @GetMapping("/products")
-    public List<Product> allProducts() {
-        return productRepo.findAll();
+    public ResponseEntity<byte[]> allProducts(
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch,
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding
+    ) {
+        return catalog.respond(catalog.products(), ifNoneMatch, acceptEncoding);
     }
 
     // ✅ Add new product
     @PostMapping("/products")
     public ResponseEntity<?> addProduct(@RequestBody Product p) {
-        productRepo.save(p);
+        productService.create(p);
         return ResponseEntity.ok("✅ Product added successfully");
     }
 
+    // ✅ Bulk import: CSV (header: name,price[,description,qty,imageUrl,category]) or NDJSON, streamed from the body
+    @PostMapping(value = "/products/import", consumes = {"text/csv", "application/x-ndjson", "application/ndjson"})
+    public ImportReport importProducts(HttpServletRequest request,
+                                       @RequestParam(defaultValue = "false") boolean createCategories) throws IOException {
+        ProductImportService.Format format = request.getContentType().startsWith("text/csv")
+                ? ProductImportService.Format.CSV
+                : ProductImportService.Format.NDJSON;
+        return importService.importProducts(request.getInputStream(), format, createCategories);
+    }
+
     // ✅ Update existing product
     @PutMapping("/products/{id}")
     public ResponseEntity<?> updateProduct(@PathVariable Long id, @RequestBody Product updated) {
-        return productRepo.findById(id)
-                .map(existing -> {
-                    existing.setName(updated.getName());
-                    existing.setDescription(updated.getDescription());
-                    existing.setPrice(updated.getPrice());
-                    existing.setQty(updated.getQty());
-                    existing.setImageUrl(updated.getImageUrl());
-                    existing.setCategory(updated.getCategory());
-                    existing.setAvgRating(updated.getAvgRating());
-                    productRepo.save(existing);
-                    return ResponseEntity.ok("✅ Product updated successfully");
-                })
+        return productService.update(id, updated)
+                .<ResponseEntity<?>>map(p -> ResponseEntity.ok("✅ Product updated successfully"))
                 .orElseGet(() -> ResponseEntity.status(404).body("❌ Product not found"));
     }
 
     // ✅ Delete product by ID
     @DeleteMapping("/products/{id}")
     public ResponseEntity<?> deleteProduct(@PathVariable Long id) {
-        if (!productRepo.existsById(id)) {
+        if (!productService.delete(id)) {
             return ResponseEntity.status(404).body("❌ Product not found");
         }
-        productRepo.deleteById(id);
         return ResponseEntity.ok("🗑️ Product deleted successfully");
     }
+
+    // ✅ All orders from the summary read model, newest first (?before=<nextCursor> pages on)
+    @GetMapping("/orders")
+    public OrderHistoryPage allOrders(@RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+                                      @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+                                      @RequestParam(required = false) Long before,
+                                      @RequestParam(defaultValue = "50") int size) {
+        return orderService.allOrders(from, to, before, size);
+    }
+
+    // ✅ Streamed export: ?format=ndjson|csv, optional created-at range and status; gzip when the client accepts it
+    @GetMapping("/export/orders")
+    public ResponseEntity<StreamingResponseBody> exportOrders(
+            HttpServletRequest request,
+            @RequestParam(defaultValue = "ndjson") String format,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+            @RequestParam(required = false) String status,
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding
+    ) {
+        ExportService.Format f = exportFormat(format);
+        return export(request, "orders", f, acceptEncoding,
+                out -> exportService.exportOrders(out, f, from, to, status));
+    }
+
+    @GetMapping("/export/products")
+    public ResponseEntity<StreamingResponseBody> exportProducts(
+            HttpServletRequest request,
+            @RequestParam(defaultValue = "ndjson") String format,
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding
+    ) {
+        ExportService.Format f = exportFormat(format);
+        return export(request, "products", f, acceptEncoding, out -> exportService.exportProducts(out, f));
+    }
+
+    // ✅ Write-behind cart tier: cached/dirty carts, flush batch size and lag
+    @GetMapping("/cart-store")
+    public Map<String, Object> cartStoreStats() {
+        return cartStore.stats();
+    }
+
+    // ✅ Handlers issuing the most SQL per request since the last report, and recent @QueryBudget violations
+    @GetMapping("/sql-offenders")
+    public Map<String, Object> sqlOffenders(@RequestParam(defaultValue = "10") int limit) {
+        return Map.of("top", queryBudgets.topOffenders(limit), "violations", queryBudgets.violations());
+    }
+
+    // ✅ Recompute rating aggregates from the reviews table
+    @PostMapping("/reviews/rebuild-stats")
+    public ResponseEntity<?> rebuildRatingStats() {
+        int corrected = reviewService.rebuildStats();
+        return ResponseEntity.ok("⭐ Rating stats rebuilt, " + corrected + " products corrected");
+    }
+
+    private static ExportService.Format exportFormat(String format) {
+        return "csv".equalsIgnoreCase(format) ? ExportService.Format.CSV : ExportService.Format.NDJSON;
+    }
+
+    private ResponseEntity<StreamingResponseBody> export(HttpServletRequest request, String name,
+                                                         ExportService.Format format, String acceptEncoding,
+                                                         StreamingResponseBody body) {
+        // The async request is set up before the handler runs; the streaming body inherits this timeout
+        WebAsyncUtils.getAsyncManager(request).getAsyncWebRequest().setTimeout(exportTimeout.toMillis());
+        boolean gzip = acceptEncoding != null && acceptEncoding.contains("gzip");
+        boolean csv = format == ExportService.Format.CSV;
+        ResponseEntity.BodyBuilder res = ResponseEntity.ok()
+                .contentType(csv ? new MediaType("text", "csv", StandardCharsets.UTF_8)
+                        : MediaType.parseMediaType("application/x-ndjson"))
+                .header(HttpHeaders.CONTENT_DISPOSITION,
+                        "attachment; filename=\"" + name + (csv ? ".csv" : ".ndjson") + "\"")
+                .header(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+        if (!gzip) return res.body(body);
+        return res.header(HttpHeaders.CONTENT_ENCODING, "gzip").body(out -> {
+            GZIPOutputStream zip = new GZIPOutputStream(out, 64 * 1024);
+            body.writeTo(zip);
+            zip.finish();
+        });
+    }
 }
@@ -3,6 +3,7 @@ package com.ecommerce.ecommercebackend.controller;
 import com.ecommerce.ecommercebackend.dto.RegisterRequest;
 import com.ecommerce.ecommercebackend.entity.User;
 import com.ecommerce.ecommercebackend.repository.UserRepository;
+import com.ecommerce.ecommercebackend.service.UserCache;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.Authentication;
@@ -19,10 +20,11 @@ public class AuthController {
 
     private final UserRepository userRepo;
     private final PasswordEncoder encoder;
+    private final UserCache userCache;
 
 @PostMapping("/register")
 public ResponseEntity<?> register(@RequestBody RegisterRequest req) {
-    System.out.println("📩 Register Request → " + req.getUsername() + " / " + req.getPassword() + " / " + req.getAddress());
+    System.out.println("📩 Register Request → " + req.getUsername() + " / " + req.getAddress());
 
     if (req.getUsername() == null || req.getUsername().isBlank()) {
         return ResponseEntity.badRequest().body("Username cannot be empty");
@@ -45,6 +47,7 @@ public ResponseEntity<?> register(@RequestBody RegisterRequest req) {
     newUser.setRole("USER");
 
     userRepo.save(newUser);
+    userCache.invalidate(newUser.getUsername());
 
     return ResponseEntity.ok("User registered successfully ✅");
 }
@@ -1,8 +1,14 @@
 package com.ecommerce.ecommercebackend.controller;
 
+import com.ecommerce.ecommercebackend.dto.CategoryMenuEntry;
 import com.ecommerce.ecommercebackend.entity.Category;
 import com.ecommerce.ecommercebackend.repository.CategoryRepository;
+import com.ecommerce.ecommercebackend.service.CatalogSnapshotService;
+import com.ecommerce.ecommercebackend.service.CategoryDictionary;
+import com.ecommerce.ecommercebackend.service.ProductService;
 import lombok.RequiredArgsConstructor;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
@@ -15,28 +21,47 @@ import java.util.Optional;
 public class CategoryController {
 
     private final CategoryRepository categoryRepo;
+    private final CatalogSnapshotService catalog;
+    private final ProductService productService;
+    private final CategoryDictionary categories;
 
     // ✅ 1. Add a new category
     @PostMapping
     public ResponseEntity<?> addCategory(@RequestBody Category category) {
-        // Prevent duplicate names
-        Optional<Category> existing = categoryRepo.findAll()
-                .stream()
-                .filter(c -> c.getName().equalsIgnoreCase(category.getName()))
-                .findFirst();
-
-        if (existing.isPresent()) {
+        if (category.getName() == null || category.getName().isBlank()) {
+            return ResponseEntity.badRequest().body("Category name is required");
+        }
+        // Cheap pre-check; the unique key on normalized_name settles concurrent adds
+        if (categories.idOf(category.getName()).isPresent()) {
             return ResponseEntity.badRequest().body("Category already exists");
         }
 
-        Category saved = categoryRepo.save(category);
+        Category saved;
+        try {
+            category.setId(null);
+            category.setName(category.getName().trim());
+            saved = categoryRepo.save(category);
+        } catch (DataIntegrityViolationException e) {
+            return ResponseEntity.badRequest().body("Category already exists");
+        }
+        categories.register(saved);
+        catalog.bump();
         return ResponseEntity.ok(saved);
     }
 
     // ✅ 2. Get all categories
     @GetMapping
-    public List<Category> getAllCategories() {
-        return categoryRepo.findAll();
+    public ResponseEntity<byte[]> getAllCategories(
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch,
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding
+    ) {
+        return catalog.respond(catalog.categories(), ifNoneMatch, acceptEncoding);
+    }
+
+    // ✅ Categories with live product counts, served from memory
+    @GetMapping("/menu")
+    public List<CategoryMenuEntry> menu() {
+        return categories.menu();
     }
 
     // ✅ 3. Get a category by ID
@@ -50,13 +75,28 @@ public class CategoryController {
     // ✅ 4. Update category name
     @PutMapping("/{id}")
     public ResponseEntity<?> updateCategory(@PathVariable Long id, @RequestBody Category updated) {
-        return categoryRepo.findById(id)
-                .map(c -> {
-                    c.setName(updated.getName());
-                    categoryRepo.save(c);
-                    return ResponseEntity.ok("Category updated successfully");
-                })
-                .orElseGet(() -> ResponseEntity.notFound().build());
+        if (updated.getName() == null || updated.getName().isBlank()) {
+            return ResponseEntity.badRequest().body("Category name is required");
+        }
+        Optional<Long> clash = categories.idOf(updated.getName());
+        if (clash.isPresent() && !clash.get().equals(id)) {
+            return ResponseEntity.badRequest().body("Category already exists");
+        }
+        Optional<Category> existing = categoryRepo.findById(id);
+        if (existing.isEmpty()) {
+            return ResponseEntity.notFound().build();
+        }
+
+        Category c = existing.get();
+        c.setName(updated.getName().trim());
+        try {
+            c = categoryRepo.save(c);
+        } catch (DataIntegrityViolationException e) {
+            return ResponseEntity.badRequest().body("Category already exists");
+        }
+        categories.register(c);
+        productService.categoryChanged(id);
+        return ResponseEntity.ok("Category updated successfully");
     }
 
     // ✅ 5. Delete category
@@ -66,6 +106,8 @@ public class CategoryController {
             return ResponseEntity.notFound().build();
         }
         categoryRepo.deleteById(id);
+        categories.unregister(id);
+        catalog.bump();
         return ResponseEntity.ok("Category deleted successfully");
     }
 }
@@ -1,12 +1,16 @@
 package com.ecommerce.ecommercebackend.controller;
 
+import com.ecommerce.ecommercebackend.config.QueryBudget;
+import com.ecommerce.ecommercebackend.dto.AuthUser;
+import com.ecommerce.ecommercebackend.dto.OrderHistoryPage;
 import com.ecommerce.ecommercebackend.entity.Order;
+import com.ecommerce.ecommercebackend.service.CartService;
 import com.ecommerce.ecommercebackend.service.OrderService;
 import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.web.bind.annotation.*;
 
-import java.security.Principal;
-import java.util.List;
+import java.time.LocalDateTime;
 
 @RestController
 @RequestMapping("/api/orders")
@@ -14,14 +18,22 @@ import java.util.List;
 public class OrderController {
 
     private final OrderService service;
+    private final CartService cartService;
 
     @PostMapping("/checkout")
-    public Order checkout(Principal principal) {
-        return service.checkout(principal.getName());
+    public Order checkout(AuthUser user) {
+        // Buffered cart edits are flushed in their own write first, so a failed checkout keeps them
+        return cartService.checkout(user.getId(), () -> service.checkout(user.getId()));
     }
 
+    // ✅ Newest first; ?from/&to (ISO date-time) narrow the range, ?before=<nextCursor> pages on
+    @QueryBudget(1)
     @GetMapping("/history")
-    public List<Order> history(Principal principal) {
-        return service.history(principal.getName());
+    public OrderHistoryPage history(AuthUser user,
+                                    @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+                                    @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+                                    @RequestParam(required = false) Long before,
+                                    @RequestParam(defaultValue = "20") int size) {
+        return service.history(user.getId(), from, to, before, size);
     }
 }
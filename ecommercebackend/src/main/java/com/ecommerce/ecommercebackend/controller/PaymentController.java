@@ -1,7 +1,6 @@
 package com.ecommerce.ecommercebackend.controller;
 
-import com.ecommerce.ecommercebackend.entity.Order;
-import com.ecommerce.ecommercebackend.repository.OrderRepository;
+import com.ecommerce.ecommercebackend.service.OrderService;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
@@ -11,16 +10,12 @@ import org.springframework.web.bind.annotation.*;
 @RequiredArgsConstructor
 public class PaymentController {
 
-    private final OrderRepository orderRepo;
+    private final OrderService orderService;
 
     // ✅ Simple, idempotent fake payment endpoint
     @PostMapping("/process/{orderId}")
     public ResponseEntity<?> processPayment(@PathVariable Long orderId) {
-        Order o = orderRepo.findById(orderId).orElseThrow();
-
-        if (!"PAID".equalsIgnoreCase(o.getStatus())) {
-            o.setStatus("PAID");
-            orderRepo.save(o);
+        if (orderService.markPaid(orderId)) {
             return ResponseEntity.ok("✅ Payment successful for order " + orderId);
         }
 
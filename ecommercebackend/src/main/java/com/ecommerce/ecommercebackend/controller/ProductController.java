@@ -1,8 +1,13 @@
 package com.ecommerce.ecommercebackend.controller;
 
+import com.ecommerce.ecommercebackend.dto.ProductFilterResponse;
+import com.ecommerce.ecommercebackend.dto.RatingSummary;
 import com.ecommerce.ecommercebackend.entity.Product;
-import com.ecommerce.ecommercebackend.repository.ProductRepository;
+import com.ecommerce.ecommercebackend.service.CatalogSnapshotService;
+import com.ecommerce.ecommercebackend.service.ProductService;
+import com.ecommerce.ecommercebackend.service.ReviewService;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
@@ -13,36 +18,47 @@ import java.util.List;
 @RequiredArgsConstructor
 public class ProductController {
 
-    private final ProductRepository repo;
+    private final CatalogSnapshotService catalog;
+    private final ProductService productService;
+    private final ReviewService reviewService;
 
-    // ✅ 1️⃣ Get all products
+    // ✅ 1️⃣ Get all products (served from the pre-serialized catalog snapshot)
     @GetMapping
-    public List<Product> getAll() {
-        return repo.findAll();
+    public ResponseEntity<byte[]> getAll(
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch,
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding
+    ) {
+        return catalog.respond(catalog.products(), ifNoneMatch, acceptEncoding);
     }
 
     // ✅ 2️⃣ Add product (Admin)
     @PostMapping("/admin/add")
     public ResponseEntity<?> add(@RequestBody Product p) {
-        repo.save(p);
+        productService.create(p);
         return ResponseEntity.ok("Product added successfully");
     }
 
-    // ✅ 3️⃣ Search products by keyword (name, description, or category)
+    // ✅ 3️⃣ Search products by keyword (name, description, or category), best matches first
     @GetMapping("/search")
-    public ResponseEntity<List<Product>> search(@RequestParam String keyword) {
-        return ResponseEntity.ok(repo.searchProducts(keyword));
+    public ResponseEntity<List<Product>> search(@RequestParam String keyword,
+                                                @RequestParam(defaultValue = "100") int limit) {
+        return ResponseEntity.ok(productService.search(keyword, limit));
     }
 
-    // ✅ 4️⃣ Filter by category, price range, and rating (separate from search)
+    // ✅ 4️⃣ Filter by category, price range, and rating (separate from search), with facet counts
     @GetMapping("/filter")
-    public ResponseEntity<List<Product>> filter(
+    public ResponseEntity<ProductFilterResponse> filter(
             @RequestParam(required = false) Long categoryId,
             @RequestParam(required = false) Double minPrice,
             @RequestParam(required = false) Double maxPrice,
             @RequestParam(required = false) Double minRating
     ) {
-        List<Product> results = repo.filterProducts(categoryId, minPrice, maxPrice, minRating);
-        return ResponseEntity.ok(results);
+        return ResponseEntity.ok(productService.filter(categoryId, minPrice, maxPrice, minRating));
+    }
+
+    // ✅ 5️⃣ Review count, average and 1–5 star histogram for one product
+    @GetMapping("/{id}/rating-summary")
+    public ResponseEntity<RatingSummary> ratingSummary(@PathVariable Long id) {
+        return ResponseEntity.ok(reviewService.summary(id));
     }
 }
@@ -1,17 +1,20 @@
 package com.ecommerce.ecommercebackend.controller;
 
+import com.ecommerce.ecommercebackend.config.QueryBudget;
+import com.ecommerce.ecommercebackend.dto.AuthUser;
 import com.ecommerce.ecommercebackend.dto.ReviewRequest;
+import com.ecommerce.ecommercebackend.dto.ReviewView;
 import com.ecommerce.ecommercebackend.entity.Product;
 import com.ecommerce.ecommercebackend.entity.Review;
 import com.ecommerce.ecommercebackend.entity.User;
 import com.ecommerce.ecommercebackend.repository.ProductRepository;
 import com.ecommerce.ecommercebackend.repository.ReviewRepository;
 import com.ecommerce.ecommercebackend.repository.UserRepository;
+import com.ecommerce.ecommercebackend.service.ReviewService;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
-import java.security.Principal;
 import java.util.List;
 
 @RestController
@@ -22,34 +25,32 @@ public class ReviewController {
     private final ReviewRepository reviewRepo;
     private final UserRepository userRepo;
     private final ProductRepository productRepo;
+    private final ReviewService reviewService;
 
     // ✅ Get all reviews
+    @QueryBudget(1)
     @GetMapping
-    public List<Review> getAll() {
-        return reviewRepo.findAll();
+    public List<ReviewView> getAll() {
+        return reviewRepo.findAllViews();
     }
 
     // ✅ Add review
+    @QueryBudget(6)
     @PostMapping("/add")
-    public ResponseEntity<?> add(@RequestBody ReviewRequest req, Principal principal) {
+    public ResponseEntity<?> add(@RequestBody ReviewRequest req, AuthUser authUser) {
         try {
             if (req.getRating() < 1 || req.getRating() > 5) {
                 return ResponseEntity.badRequest().body("Rating must be between 1 and 5");
             }
 
-            User user = userRepo.findByUsername(principal.getName())
+            // Loaded (not a reference): the response carries the author's username
+            User user = userRepo.findById(authUser.getId())
                     .orElseThrow(() -> new RuntimeException("User not found"));
             Product product = productRepo.findById(req.getProductId())
                     .orElseThrow(() -> new RuntimeException("Product not found"));
 
-            Review review = new Review();
-            review.setUser(user);
-            review.setProduct(product);
-            review.setRating(req.getRating());
-            review.setComment(req.getComment());
-
-            Review saved = reviewRepo.save(review);
-            return ResponseEntity.ok(saved);
+            Review saved = reviewService.add(user, product, req.getRating(), req.getComment());
+            return ResponseEntity.ok(ReviewView.of(saved));
         } catch (Exception e) {
             return ResponseEntity.internalServerError().body("Error: " + e.getMessage());
         }
@@ -57,10 +58,11 @@ public class ReviewController {
 
     // ✅ Update existing review (only by owner)
     @PutMapping("/update/{id}")
-    public ResponseEntity<?> update(@PathVariable Long id, @RequestBody ReviewRequest req, Principal principal) {
+    public ResponseEntity<?> update(@PathVariable Long id, @RequestBody ReviewRequest req, AuthUser user) {
         try {
-            User user = userRepo.findByUsername(principal.getName())
-                    .orElseThrow(() -> new RuntimeException("User not found"));
+            if (req.getRating() != null && (req.getRating() < 1 || req.getRating() > 5)) {
+                return ResponseEntity.badRequest().body("Rating must be between 1 and 5");
+            }
 
             Review existing = reviewRepo.findById(id)
                     .orElseThrow(() -> new RuntimeException("Review not found"));
@@ -69,13 +71,8 @@ public class ReviewController {
                 return ResponseEntity.status(403).body("Not allowed to edit this review");
             }
 
-            if (req.getRating() != null) existing.setRating(req.getRating());
-            if (req.getComment() != null && !req.getComment().isBlank()) {
-                existing.setComment(req.getComment());
-            }
-
-            Review updated = reviewRepo.save(existing);
-            return ResponseEntity.ok(updated);
+            Review updated = reviewService.update(existing, req.getRating(), req.getComment());
+            return ResponseEntity.ok(ReviewView.of(updated));
         } catch (Exception e) {
             return ResponseEntity.internalServerError().body("Error: " + e.getMessage());
         }
@@ -83,11 +80,8 @@ public class ReviewController {
 
     // ✅ Delete review (only by owner)
     @DeleteMapping("/delete/{id}")
-    public ResponseEntity<?> delete(@PathVariable Long id, Principal principal) {
+    public ResponseEntity<?> delete(@PathVariable Long id, AuthUser user) {
         try {
-            User user = userRepo.findByUsername(principal.getName())
-                    .orElseThrow(() -> new RuntimeException("User not found"));
-
             Review existing = reviewRepo.findById(id)
                     .orElseThrow(() -> new RuntimeException("Review not found"));
 
@@ -95,7 +89,7 @@ public class ReviewController {
                 return ResponseEntity.status(403).body("Not allowed to delete this review");
             }
 
-            reviewRepo.delete(existing);
+            reviewService.delete(existing);
             return ResponseEntity.ok("Review deleted successfully");
         } catch (Exception e) {
             return ResponseEntity.internalServerError().body("Error: " + e.getMessage());
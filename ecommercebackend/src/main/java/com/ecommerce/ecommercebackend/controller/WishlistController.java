@@ -1,16 +1,17 @@
 package com.ecommerce.ecommercebackend.controller;
 
+import com.ecommerce.ecommercebackend.config.QueryBudget;
+import com.ecommerce.ecommercebackend.dto.AuthUser;
+import com.ecommerce.ecommercebackend.dto.WishlistItemView;
 import com.ecommerce.ecommercebackend.entity.Product;
-import com.ecommerce.ecommercebackend.entity.User;
 import com.ecommerce.ecommercebackend.entity.Wishlist;
 import com.ecommerce.ecommercebackend.repository.ProductRepository;
-import com.ecommerce.ecommercebackend.repository.UserRepository;
 import com.ecommerce.ecommercebackend.repository.WishlistRepository;
+import com.ecommerce.ecommercebackend.service.UserCache;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
-import java.security.Principal;
 import java.util.List;
 
 @RestController
@@ -20,16 +21,16 @@ public class WishlistController {
 
     private final WishlistRepository wishlistRepo;
     private final ProductRepository productRepo;
-    private final UserRepository userRepo;
+    private final UserCache userCache;
 
     // ✅ Add to wishlist
+    @QueryBudget(2)
     @PostMapping("/add")
-    public ResponseEntity<?> addToWishlist(@RequestParam Long productId, Principal principal) {
-        User user = userRepo.findByUsername(principal.getName()).orElseThrow();
+    public ResponseEntity<?> addToWishlist(@RequestParam Long productId, AuthUser user) {
         Product product = productRepo.findById(productId).orElseThrow();
 
         Wishlist w = new Wishlist();
-        w.setUser(user);
+        w.setUser(userCache.reference(user));
         w.setProduct(product);
         wishlistRepo.save(w);
 
@@ -37,10 +38,10 @@ public class WishlistController {
     }
 
     // ✅ Get wishlist
+    @QueryBudget(1)
     @GetMapping
-    public List<Wishlist> getWishlist(Principal principal) {
-        User user = userRepo.findByUsername(principal.getName()).orElseThrow();
-        return wishlistRepo.findByUser(user);
+    public List<WishlistItemView> getWishlist(AuthUser user) {
+        return wishlistRepo.findViewsByUserId(user.getId());
     }
 
     // ✅ Remove from wishlist
@@ -0,0 +1,13 @@
+package com.ecommerce.ecommercebackend.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+// ✅ The logged-in user as controllers need it, resolved from the session principal via UserCache
+@Getter
+@AllArgsConstructor
+public class AuthUser {
+    private final Long id;
+    private final String username;
+    private final String role;
+}
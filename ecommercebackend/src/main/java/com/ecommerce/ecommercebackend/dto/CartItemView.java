@@ -0,0 +1,19 @@
+package com.ecommerce.ecommercebackend.dto;
+
+import lombok.Getter;
+
+import java.math.BigDecimal;
+
+// ✅ Cart line read model, built by a JPQL constructor query (same JSON shape as CartItem minus the user)
+@Getter
+public class CartItemView {
+    private final Long id;
+    private final Integer qty;
+    private final ProductSummary product;
+
+    public CartItemView(Long id, Integer qty, Long productId, String name, BigDecimal price, String imageUrl) {
+        this.id = id;
+        this.qty = qty;
+        this.product = new ProductSummary(productId, name, null, price, imageUrl);
+    }
+}
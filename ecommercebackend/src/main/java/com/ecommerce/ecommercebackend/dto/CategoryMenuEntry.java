@@ -0,0 +1,12 @@
+package com.ecommerce.ecommercebackend.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+@Getter
+@AllArgsConstructor
+public class CategoryMenuEntry {
+    private Long id;
+    private String name;
+    private int productCount;
+}
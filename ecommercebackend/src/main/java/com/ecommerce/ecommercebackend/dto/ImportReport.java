@@ -0,0 +1,25 @@
+package com.ecommerce.ecommercebackend.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.List;
+
+@Getter
+@AllArgsConstructor
+public class ImportReport {
+    private long rowsRead;
+    private long inserted;
+    private long failed;
+    private int categoriesCreated;
+    private long elapsedMs;
+    private double rowsPerSecond;
+    private List<RowError> errors;   // first ProductImportService.MAX_REPORTED_ERRORS only, see failed for the total
+
+    @Getter
+    @AllArgsConstructor
+    public static class RowError {
+        private long line;
+        private String message;
+    }
+}
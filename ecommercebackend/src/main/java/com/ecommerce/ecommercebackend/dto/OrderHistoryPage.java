@@ -0,0 +1,14 @@
+package com.ecommerce.ecommercebackend.dto;
+
+import com.ecommerce.ecommercebackend.entity.OrderSummary;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.List;
+
+@Getter
+@AllArgsConstructor
+public class OrderHistoryPage {
+    private List<OrderSummary> orders;   // newest first
+    private Long nextCursor;      // pass as ?before= for the next page, null on the last page
+}
@@ -0,0 +1,25 @@
+package com.ecommerce.ecommercebackend.dto;
+
+import com.ecommerce.ecommercebackend.entity.Product;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.List;
+import java.util.Map;
+
+@Getter
+@AllArgsConstructor
+public class ProductFilterResponse {
+    private List<Product> products;
+    private Map<Long, Integer> categoryCounts;   // categoryId -> matches, ignoring the category filter
+    private List<PriceBand> priceHistogram;      // ignoring the price filter
+    private Map<Integer, Integer> ratingCounts;  // n -> matches rated n stars & up, ignoring the rating filter
+
+    @Getter
+    @AllArgsConstructor
+    public static class PriceBand {
+        private Double min;
+        private Double max;   // null = open ended
+        private int count;
+    }
+}
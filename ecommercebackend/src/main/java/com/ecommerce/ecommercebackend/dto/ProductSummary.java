@@ -0,0 +1,19 @@
+package com.ecommerce.ecommercebackend.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.math.BigDecimal;
+
+// ✅ The product fields a cart / wishlist / review row renders, nothing else
+@Getter
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class ProductSummary {
+    private Long id;
+    private String name;
+    private String description;   // wishlist cards only
+    private BigDecimal price;
+    private String imageUrl;
+}
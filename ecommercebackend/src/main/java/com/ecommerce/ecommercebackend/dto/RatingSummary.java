@@ -0,0 +1,15 @@
+package com.ecommerce.ecommercebackend.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.Map;
+
+@Getter
+@AllArgsConstructor
+public class RatingSummary {
+    private Long productId;
+    private long reviewCount;
+    private double average;
+    private Map<Integer, Long> histogram; // stars (1-5) -> number of reviews
+}
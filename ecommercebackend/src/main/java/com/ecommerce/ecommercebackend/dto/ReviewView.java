@@ -0,0 +1,42 @@
+package com.ecommerce.ecommercebackend.dto;
+
+import com.ecommerce.ecommercebackend.entity.Review;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.time.LocalDateTime;
+
+// ✅ Review read model: only the author's username leaves the server, never the user row
+@Getter
+public class ReviewView {
+    private final Long id;
+    private final Integer rating;
+    private final String comment;
+    private final LocalDateTime createdAt;
+    private final ProductSummary product;
+    private final Author user;
+
+    public ReviewView(Long id, Integer rating, String comment, LocalDateTime createdAt,
+                      Long productId, String productName, String imageUrl, String username) {
+        this.id = id;
+        this.rating = rating;
+        this.comment = comment;
+        this.createdAt = createdAt;
+        this.product = productId == null ? null : new ProductSummary(productId, productName, null, null, imageUrl);
+        this.user = username == null ? null : new Author(username);
+    }
+
+    public static ReviewView of(Review r) {
+        return new ReviewView(r.getId(), r.getRating(), r.getComment(), r.getCreatedAt(),
+                r.getProduct() != null ? r.getProduct().getId() : null,
+                r.getProduct() != null ? r.getProduct().getName() : null,
+                r.getProduct() != null ? r.getProduct().getImageUrl() : null,
+                r.getUser() != null ? r.getUser().getUsername() : null);
+    }
+
+    @Getter
+    @AllArgsConstructor
+    public static class Author {
+        private String username;
+    }
+}
@@ -0,0 +1,18 @@
+package com.ecommerce.ecommercebackend.dto;
+
+import lombok.Getter;
+
+import java.math.BigDecimal;
+
+// ✅ Wishlist row read model, built by a JPQL constructor query
+@Getter
+public class WishlistItemView {
+    private final Long id;
+    private final ProductSummary product;
+
+    public WishlistItemView(Long id, Long productId, String name, String description,
+                            BigDecimal price, String imageUrl) {
+        this.id = id;
+        this.product = new ProductSummary(productId, name, description, price, imageUrl);
+    }
+}
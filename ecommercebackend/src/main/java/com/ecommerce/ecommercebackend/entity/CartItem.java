@@ -4,6 +4,7 @@ import jakarta.persistence.*;
 import lombok.*;
 
 @Entity
+@Table(uniqueConstraints = @UniqueConstraint(name = "uk_cart_item_user_product", columnNames = {"user_id", "product_id"}))
 @Getter @Setter @NoArgsConstructor @AllArgsConstructor
 public class CartItem {
     @Id @GeneratedValue(strategy = GenerationType.IDENTITY)
@@ -1,13 +1,36 @@
 package com.ecommerce.ecommercebackend.entity;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import jakarta.persistence.*;
 import lombok.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+
+import java.util.Locale;
 
 @Entity
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "category")
 @Getter @Setter @NoArgsConstructor @AllArgsConstructor
 public class Category {
     @Id @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
     @Column(unique=true)
     private String name;
+
+    // ✅ Case/whitespace-folded name; its unique key is what stops "Books" and " books" coexisting
+    @JsonIgnore
+    @Column(name = "normalized_name", unique = true)
+    private String normalizedName;
+
+    @PrePersist
+    @PreUpdate
+    void normalize() {
+        normalizedName = normalize(name);
+    }
+
+    public static String normalize(String name) {
+        if (name == null) return null;
+        return name.trim().replaceAll("\\s+", " ").toLowerCase(Locale.ROOT);
+    }
 }
@@ -12,8 +12,10 @@ import java.math.BigDecimal;
 @AllArgsConstructor
 public class OrderItem {
 
+    // ✅ Pooled sequence instead of IDENTITY so all lines of an order go out in one JDBC batch
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "order_item_seq")
+    @SequenceGenerator(name = "order_item_seq", sequenceName = "order_item_seq", allocationSize = 50)
     private Long id;
 
     // ✅ This breaks the recursion
@@ -0,0 +1,98 @@
+package com.ecommerce.ecommercebackend.entity;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import jakarta.persistence.*;
+import lombok.*;
+import org.hibernate.annotations.JdbcTypeCode;
+import org.hibernate.type.SqlTypes;
+import org.springframework.data.domain.Persistable;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * ✅ Read model of one order as "My orders" shows it: written with the order at checkout,
+ * lines frozen as they were bought, so later product edits never rewrite history.
+ * Serializes in the same shape as Order (id, total, status, createdAt, items[].product).
+ */
+@Entity
+@Table(name = "order_summary", indexes = @Index(name = "idx_order_summary_user_id_id", columnList = "user_id, id"))
+@Getter @Setter @NoArgsConstructor @AllArgsConstructor
+public class OrderSummary implements Persistable<Long> {
+
+    // Same value as orders.id
+    @Id
+    private Long id;
+
+    @JsonIgnore
+    @Column(name = "user_id", nullable = false)
+    private Long userId;
+
+    private String status;
+
+    private BigDecimal total = BigDecimal.ZERO;
+
+    // Units across all lines
+    private Integer itemCount = 0;
+
+    private LocalDateTime createdAt;
+
+    @JdbcTypeCode(SqlTypes.JSON)
+    @Column(name = "line_snapshots")
+    private List<Line> items = new ArrayList<>();
+
+    // Assigned id: tell Spring Data to persist instead of merge, so checkout skips a SELECT
+    @Transient
+    @JsonIgnore
+    private boolean created;
+
+    public static OrderSummary of(Order o, Long userId) {
+        OrderSummary s = new OrderSummary();
+        s.id = o.getId();
+        s.userId = userId;
+        s.status = o.getStatus();
+        s.total = o.getTotal();
+        s.createdAt = o.getCreatedAt();
+        s.created = true;
+        int units = 0;
+        for (OrderItem oi : o.getItems() != null ? o.getItems() : List.<OrderItem>of()) {
+            Product p = oi.getProduct();
+            s.items.add(new Line(oi.getId(), oi.getQty(), oi.getPrice(),
+                    new ProductSnapshot(p.getId(), p.getName(), oi.getPrice(), p.getImageUrl())));
+            units += oi.getQty() != null ? oi.getQty() : 0;
+        }
+        s.itemCount = units;
+        return s;
+    }
+
+    @Override
+    @JsonIgnore
+    public boolean isNew() {
+        return created;
+    }
+
+    @PostLoad
+    @PostPersist
+    void markStored() {
+        created = false;
+    }
+
+    @Getter @Setter @NoArgsConstructor @AllArgsConstructor
+    public static class Line {
+        private Long id;
+        private Integer qty;
+        private BigDecimal price;
+        private ProductSnapshot product;
+    }
+
+    // Price here is the price paid, not today's catalog price
+    @Getter @Setter @NoArgsConstructor @AllArgsConstructor
+    public static class ProductSnapshot {
+        private Long id;
+        private String name;
+        private BigDecimal price;
+        private String imageUrl;
+    }
+}
@@ -0,0 +1,29 @@
+package com.ecommerce.ecommercebackend.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+// ✅ Running rating aggregates per product, updated in place on every review write
+@Entity
+@Getter @Setter @NoArgsConstructor @AllArgsConstructor
+public class ProductRatingStats {
+    @Id
+    private Long productId;
+
+    private Long reviewCount = 0L;
+    private Long ratingSum = 0L;
+
+    private Long stars1 = 0L;
+    private Long stars2 = 0L;
+    private Long stars3 = 0L;
+    private Long stars4 = 0L;
+    private Long stars5 = 0L;
+
+    public ProductRatingStats(Long productId) {
+        this.productId = productId;
+    }
+
+    public double average() {
+        return reviewCount == null || reviewCount == 0 ? 0.0 : (double) ratingSum / reviewCount;
+    }
+}
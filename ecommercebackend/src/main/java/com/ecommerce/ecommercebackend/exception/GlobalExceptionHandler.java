@@ -2,9 +2,25 @@ package com.ecommerce.ecommercebackend.exception;
 
 import org.springframework.web.bind.annotation.*;
 import org.springframework.http.ResponseEntity;
+import org.springframework.web.server.ResponseStatusException;
 
 @ControllerAdvice
 public class GlobalExceptionHandler {
+    @ExceptionHandler(ResponseStatusException.class)
+    public ResponseEntity<?> status(ResponseStatusException e) {
+        return ResponseEntity.status(e.getStatusCode()).body(e.getReason());
+    }
+
+    @ExceptionHandler(InsufficientStockException.class)
+    public ResponseEntity<?> outOfStock(InsufficientStockException e) {
+        return ResponseEntity.status(409).body(e.getMessage());
+    }
+
+    @ExceptionHandler(PasswordHashingRejectedException.class)
+    public ResponseEntity<?> hashingBusy(PasswordHashingRejectedException e) {
+        return ResponseEntity.status(503).header("Retry-After", "1").body(e.getMessage());
+    }
+
     @ExceptionHandler(Exception.class)
     public ResponseEntity<?> all(Exception e) {
         return ResponseEntity.badRequest().body(e.getMessage());
@@ -0,0 +1,15 @@
+package com.ecommerce.ecommercebackend.exception;
+
+import lombok.Getter;
+
+import java.util.List;
+
+@Getter
+public class InsufficientStockException extends RuntimeException {
+    private final List<Long> productIds;
+
+    public InsufficientStockException(List<Long> productIds) {
+        super("Not enough stock for product(s) " + productIds);
+        this.productIds = productIds;
+    }
+}
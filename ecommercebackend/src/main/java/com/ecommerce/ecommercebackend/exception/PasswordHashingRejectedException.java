@@ -0,0 +1,10 @@
+package com.ecommerce.ecommercebackend.exception;
+
+import org.springframework.security.authentication.AuthenticationServiceException;
+
+// Thrown when the password-hashing pool is saturated; surfaced as 503 so clients back off and retry
+public class PasswordHashingRejectedException extends AuthenticationServiceException {
+    public PasswordHashingRejectedException(String msg) {
+        super(msg);
+    }
+}
@@ -1,11 +1,66 @@
 package com.ecommerce.ecommercebackend.repository;
 
+import com.ecommerce.ecommercebackend.dto.CartItemView;
 import com.ecommerce.ecommercebackend.entity.CartItem;
 import com.ecommerce.ecommercebackend.entity.User;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import java.util.List;
 
 public interface CartItemRepository extends JpaRepository<CartItem, Long> {
     List<CartItem> findByUser(User u);
+    List<CartItem> findByUserId(Long userId);
     void deleteByUserAndProduct(User u, com.ecommerce.ecommercebackend.entity.Product p);
+
+    // ✅ Cart page read model: one joined query, only the rendered columns
+    @Query("SELECT new com.ecommerce.ecommercebackend.dto.CartItemView(c.id, c.qty, p.id, p.name, p.price, p.imageUrl) " +
+           "FROM CartItem c JOIN c.product p WHERE c.user.id = :userId ORDER BY c.id")
+    List<CartItemView> findViewsByUserId(@Param("userId") Long userId);
+
+    // Cart lines with product + category in one query (checkout reads price and name of every line)
+    @Query("SELECT c FROM CartItem c JOIN FETCH c.product p LEFT JOIN FETCH p.category WHERE c.user.id = :userId")
+    List<CartItem> findByUserIdWithProduct(@Param("userId") Long userId);
+
+    // ✅ Insert the line or add to its qty in one statement; the (user_id, product_id) key makes it race free
+    // Query space: without it Hibernate can't tell what a native write touched and empties every cache region
+    @Transactional
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "cart_item"))
+    @Query(value = "INSERT INTO cart_item (user_id, product_id, qty) VALUES (:userId, :productId, :qty) AS new " +
+                   "ON DUPLICATE KEY UPDATE qty = cart_item.qty + new.qty", nativeQuery = true)
+    int upsertAdd(@Param("userId") Long userId, @Param("productId") Long productId, @Param("qty") int qty);
+
+    // Same upsert for H2: its MySQL mode has no row alias, only the VALUES(col) form MySQL 8.0.20 deprecated
+    @Transactional
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "cart_item"))
+    @Query(value = "INSERT INTO cart_item (user_id, product_id, qty) VALUES (:userId, :productId, :qty) " +
+                   "ON DUPLICATE KEY UPDATE qty = qty + VALUES(qty)", nativeQuery = true)
+    int upsertAddH2(@Param("userId") Long userId, @Param("productId") Long productId, @Param("qty") int qty);
+
+    @Query("SELECT c.qty FROM CartItem c WHERE c.user.id = :userId AND c.product.id = :productId")
+    Integer findQty(@Param("userId") Long userId, @Param("productId") Long productId);
+
+    // ✅ Owner-guarded single-statement edits: 0 rows means missing or someone else's line
+    @Transactional
+    @Modifying
+    @Query("UPDATE CartItem c SET c.qty = :qty WHERE c.id = :id AND c.user.id = :userId")
+    int updateQtyIfOwned(@Param("id") Long id, @Param("userId") Long userId, @Param("qty") int qty);
+
+    @Transactional
+    @Modifying
+    @Query("DELETE FROM CartItem c WHERE c.id = :id AND c.user.id = :userId")
+    int deleteIfOwned(@Param("id") Long id, @Param("userId") Long userId);
+
+    // One DELETE for the whole cart instead of one per line
+    @Transactional
+    @Modifying
+    @Query("DELETE FROM CartItem c WHERE c.user.id = :userId")
+    int clearCart(@Param("userId") Long userId);
 }
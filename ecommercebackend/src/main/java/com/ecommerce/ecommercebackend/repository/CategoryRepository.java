@@ -1,7 +1,21 @@
 package com.ecommerce.ecommercebackend.repository;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.transaction.annotation.Transactional;
 import com.ecommerce.ecommercebackend.entity.Category;
 
+import java.util.List;
+import java.util.Optional;
+
 public interface CategoryRepository extends JpaRepository<Category, Long> {
+
+    // Read-only query methods may be served by the read replica (ReplicaRoutingConfig)
+    @Transactional(readOnly = true)
+    Optional<Category> findByNormalizedName(String normalizedName);
+
+    // [categoryId, count]; only run when the category dictionary is (re)built
+    @Transactional(readOnly = true)
+    @Query("SELECT p.category.id, COUNT(p) FROM Product p WHERE p.category IS NOT NULL GROUP BY p.category.id")
+    List<Object[]> countProductsByCategory();
 }
@@ -2,9 +2,20 @@ package com.ecommerce.ecommercebackend.repository;
 
 import com.ecommerce.ecommercebackend.entity.Order;
 import com.ecommerce.ecommercebackend.entity.User;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.Collection;
 import java.util.List;
 
 public interface OrderRepository extends JpaRepository<Order, Long> {
     List<Order> findByUser(User u);
+    List<Order> findByUserId(Long userId);
+
+    // ✅ Orders with items, products and categories in one query (no lazy loads per line)
+    @EntityGraph(attributePaths = {"items", "items.product", "items.product.category"})
+    @Query("SELECT DISTINCT o FROM Order o WHERE o.id IN :ids")
+    List<Order> findWithItemsByIdIn(@Param("ids") Collection<Long> ids);
 }
@@ -0,0 +1,44 @@
+package com.ecommerce.ecommercebackend.repository;
+
+import com.ecommerce.ecommercebackend.entity.OrderSummary;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+public interface OrderSummaryRepository extends JpaRepository<OrderSummary, Long> {
+
+    // ✅ "My orders": one range scan on (userId, id), newest first; read-only, so the replica may serve it
+    @Transactional(readOnly = true)
+    @Query("SELECT s FROM OrderSummary s WHERE s.userId = :userId AND s.id < :before " +
+           "AND s.createdAt >= :from AND s.createdAt < :to ORDER BY s.id DESC")
+    List<OrderSummary> findPage(@Param("userId") Long userId,
+                                @Param("before") Long before,
+                                @Param("from") LocalDateTime from,
+                                @Param("to") LocalDateTime to,
+                                Pageable page);
+
+    // Admin view across all users, keyset on the primary key
+    @Transactional(readOnly = true)
+    @Query("SELECT s FROM OrderSummary s WHERE s.id < :before " +
+           "AND s.createdAt >= :from AND s.createdAt < :to ORDER BY s.id DESC")
+    List<OrderSummary> findAllPage(@Param("before") Long before,
+                                   @Param("from") LocalDateTime from,
+                                   @Param("to") LocalDateTime to,
+                                   Pageable page);
+
+    @Transactional
+    @Modifying
+    @Query("UPDATE OrderSummary s SET s.status = :status WHERE s.id = :id")
+    int updateStatus(@Param("id") Long id, @Param("status") String status);
+
+    // Orders written before the summary table existed
+    @Query("SELECT o.id FROM Order o WHERE o.id > :after " +
+           "AND NOT EXISTS (SELECT 1 FROM OrderSummary s WHERE s.id = o.id) ORDER BY o.id")
+    List<Long> findOrderIdsWithoutSummary(@Param("after") Long after, Pageable page);
+}
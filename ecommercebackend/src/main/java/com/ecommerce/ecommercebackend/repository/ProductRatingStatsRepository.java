@@ -0,0 +1,40 @@
+package com.ecommerce.ecommercebackend.repository;
+
+import com.ecommerce.ecommercebackend.entity.ProductRatingStats;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+
+public interface ProductRatingStatsRepository extends JpaRepository<ProductRatingStats, Long> {
+
+    // ⚡ O(1) atomic delta, the row lock serializes concurrent writers on the same product
+    @Transactional
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE ProductRatingStats s SET " +
+           "s.reviewCount = s.reviewCount + :count, s.ratingSum = s.ratingSum + :sum, " +
+           "s.stars1 = s.stars1 + :d1, s.stars2 = s.stars2 + :d2, s.stars3 = s.stars3 + :d3, " +
+           "s.stars4 = s.stars4 + :d4, s.stars5 = s.stars5 + :d5 " +
+           "WHERE s.productId = :productId")
+    int applyDelta(@Param("productId") Long productId,
+                   @Param("count") long count, @Param("sum") long sum,
+                   @Param("d1") long d1, @Param("d2") long d2, @Param("d3") long d3,
+                   @Param("d4") long d4, @Param("d5") long d5);
+
+    // Seeds one product's row; 0 when a concurrent writer inserted it first
+    // Query space: without it Hibernate can't tell what a native write touched and empties every cache region
+    @Transactional
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "product_rating_stats"))
+    @Query(value = "INSERT IGNORE INTO product_rating_stats " +
+                   "(product_id, review_count, rating_sum, stars1, stars2, stars3, stars4, stars5) " +
+                   "VALUES (:productId, :count, :sum, :s1, :s2, :s3, :s4, :s5)", nativeQuery = true)
+    int insertIfAbsent(@Param("productId") Long productId,
+                       @Param("count") long count, @Param("sum") long sum,
+                       @Param("s1") long s1, @Param("s2") long s2, @Param("s3") long s3,
+                       @Param("s4") long s4, @Param("s5") long s5);
+}
@@ -5,11 +5,22 @@ import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
 import java.util.List;
 
 public interface ProductRepository extends JpaRepository<Product, Long>, JpaSpecificationExecutor<Product> {
 
-    // 🔍 Search query (for /api/products/search)
+    List<Product> findByCategoryId(Long categoryId);
+
+    @Query("SELECT p.id FROM Product p")
+    List<Long> findAllIds();
+
+    // [productId, avgRating] for the rating stats rebuild
+    @Query("SELECT p.id, p.avgRating FROM Product p")
+    List<Object[]> findAllAvgRatings();
+
+    // 🔍 Search query (for /api/products/search); read-only, so the replica may serve it
+    @Transactional(readOnly = true)
     @Query("SELECT p FROM Product p " +
            "WHERE LOWER(p.name) LIKE LOWER(CONCAT('%', :keyword, '%')) " +
            "   OR LOWER(p.description) LIKE LOWER(CONCAT('%', :keyword, '%')) " +
@@ -17,6 +28,7 @@ public interface ProductRepository extends JpaRepository<Product, Long>, JpaSpec
     List<Product> searchProducts(@Param("keyword") String keyword);
 
     // 🎯 Filter query (for /api/products/filter)
+    @Transactional(readOnly = true)
     @Query("SELECT p FROM Product p " +
            "WHERE (:categoryId IS NULL OR p.category.id = :categoryId) " +
            "AND (:minPrice IS NULL OR p.price >= :minPrice) " +
@@ -1,10 +1,38 @@
 package com.ecommerce.ecommercebackend.repository;
 
+import com.ecommerce.ecommercebackend.dto.ReviewView;
 import com.ecommerce.ecommercebackend.entity.Review;
 import com.ecommerce.ecommercebackend.entity.Product;
 import org.springframework.data.jpa.repository.JpaRepository;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
 import java.util.List;
 
 public interface ReviewRepository extends JpaRepository<Review, Long> {
+    // Read-only query methods may be served by the read replica (ReplicaRoutingConfig)
+    @Transactional(readOnly = true)
     List<Review> findByProduct(Product p);
+
+    // ✅ Reviews page read model: review + product name/image + author username in one query.
+    // Query-cached: any Hibernate write to review, product or users drops the cached result
+    @Transactional(readOnly = true)
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
+    @Query("SELECT new com.ecommerce.ecommercebackend.dto.ReviewView(r.id, r.rating, r.comment, r.createdAt, " +
+           "p.id, p.name, p.imageUrl, u.username) " +
+           "FROM Review r LEFT JOIN r.product p LEFT JOIN r.user u ORDER BY r.id")
+    List<ReviewView> findAllViews();
+
+    // [productId, rating, count] for the rating stats rebuild
+    @Query("SELECT r.product.id, r.rating, COUNT(r) FROM Review r " +
+           "WHERE r.rating IS NOT NULL GROUP BY r.product.id, r.rating")
+    List<Object[]> countByProductAndRating();
+
+    // [rating, count] for one product
+    @Query("SELECT r.rating, COUNT(r) FROM Review r " +
+           "WHERE r.product.id = :productId AND r.rating IS NOT NULL GROUP BY r.rating")
+    List<Object[]> countByRating(@Param("productId") Long productId);
 }
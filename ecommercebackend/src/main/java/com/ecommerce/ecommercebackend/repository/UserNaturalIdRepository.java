@@ -0,0 +1,12 @@
+package com.ecommerce.ecommercebackend.repository;
+
+import com.ecommerce.ecommercebackend.entity.User;
+import org.springframework.transaction.annotation.Transactional;
+import java.util.Optional;
+
+public interface UserNaturalIdRepository {
+
+    // ✅ username -> User through the natural-id and entity caches; SQL only on a miss
+    @Transactional(readOnly = true)
+    Optional<User> findByUsername(String username);
+}
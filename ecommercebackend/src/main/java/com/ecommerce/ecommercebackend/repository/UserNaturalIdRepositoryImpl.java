@@ -0,0 +1,18 @@
+package com.ecommerce.ecommercebackend.repository;
+
+import com.ecommerce.ecommercebackend.entity.User;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.hibernate.Session;
+import java.util.Optional;
+
+class UserNaturalIdRepositoryImpl implements UserNaturalIdRepository {
+
+    @PersistenceContext
+    private EntityManager em;
+
+    @Override
+    public Optional<User> findByUsername(String username) {
+        return em.unwrap(Session.class).bySimpleNaturalId(User.class).loadOptional(username);
+    }
+}
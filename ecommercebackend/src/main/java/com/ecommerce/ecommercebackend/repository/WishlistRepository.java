@@ -1,11 +1,21 @@
 package com.ecommerce.ecommercebackend.repository;
 
+import com.ecommerce.ecommercebackend.dto.WishlistItemView;
 import com.ecommerce.ecommercebackend.entity.Wishlist;
 import com.ecommerce.ecommercebackend.entity.User;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import java.util.List;
 
 public interface WishlistRepository extends JpaRepository<Wishlist, Long> {
     List<Wishlist> findByUser(User u);
+    List<Wishlist> findByUserId(Long userId);
+
+    // ✅ Wishlist page read model: one joined query, only the rendered columns
+    @Query("SELECT new com.ecommerce.ecommercebackend.dto.WishlistItemView(w.id, p.id, p.name, p.description, p.price, p.imageUrl) " +
+           "FROM Wishlist w JOIN w.product p WHERE w.user.id = :userId ORDER BY w.id")
+    List<WishlistItemView> findViewsByUserId(@Param("userId") Long userId);
+
     void deleteByUserAndProduct(User u, com.ecommerce.ecommercebackend.entity.Product p);
 }
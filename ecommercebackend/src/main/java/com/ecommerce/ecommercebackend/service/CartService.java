@@ -1,42 +1,124 @@
 package com.ecommerce.ecommercebackend.service;
 
+import com.ecommerce.ecommercebackend.dto.CartItemView;
 import com.ecommerce.ecommercebackend.entity.*;
 import com.ecommerce.ecommercebackend.repository.*;
+import org.springframework.dao.ConcurrencyFailureException;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
-import lombok.RequiredArgsConstructor;
+import org.springframework.web.server.ResponseStatusException;
+import io.micrometer.core.annotation.Timed;
 
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
 import java.util.List;
+import java.util.function.Supplier;
 
+// ✅ Cart reads and writes, through CartStore when the in-memory tier is enabled
+@Timed(value = "service.calls", histogram = true)
 @Service
-@RequiredArgsConstructor
 public class CartService {
+    private static final int UPSERT_ATTEMPTS = 3;
+
     private final CartItemRepository cartRepo;
     private final UserRepository userRepo;
     private final ProductRepository prodRepo;
+    private final CartStore store;
+    // MySQL takes the row-alias upsert; anything else (H2 in tests) the VALUES(col) form
+    private final boolean mysql;
+
+    public CartService(CartItemRepository cartRepo, UserRepository userRepo, ProductRepository prodRepo,
+                       CartStore store, DataSource dataSource) throws SQLException {
+        this.cartRepo = cartRepo;
+        this.userRepo = userRepo;
+        this.prodRepo = prodRepo;
+        this.store = store;
+        try (Connection con = dataSource.getConnection()) {
+            this.mysql = "MySQL".equalsIgnoreCase(con.getMetaData().getDatabaseProductName());
+        }
+    }
+
+    public List<CartItemView> list(Long userId) {
+        return store.isEnabled() ? store.list(userId) : cartRepo.findViewsByUserId(userId);
+    }
+
+    // ✅ O(1) whatever the cart size: one upsert, then read back the line's new quantity
+    public int add(Long userId, Long pid, int qty) {
+        if (qty < 1) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Quantity must be at least 1");
+        }
+        // Write-through: pending removals must land first or the upsert could revive a removed line
+        return store.isEnabled() ? store.writeThrough(userId, () -> upsert(userId, pid, qty)) : upsert(userId, pid, qty);
+    }
+
+    public void updateQty(Long userId, Long cartItemId, int qty) {
+        if (qty < 1) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Quantity must be at least 1");
+        }
+        if (store.isEnabled()) {
+            store.updateQty(userId, cartItemId, qty);
+            return;
+        }
+        // One UPDATE on the happy path; the lookup only runs to pick 404 vs 403
+        if (cartRepo.updateQtyIfOwned(cartItemId, userId, qty) == 0) {
+            owned(userId, cartItemId, "❌ Not allowed to modify this item");
+        }
+    }
+
+    public void removeLine(Long userId, Long cartItemId) {
+        if (store.isEnabled()) {
+            store.remove(userId, cartItemId);
+            return;
+        }
+        if (cartRepo.deleteIfOwned(cartItemId, userId) == 0) {
+            owned(userId, cartItemId, "❌ Not allowed to delete this item");
+        }
+    }
+
+    // Returns false when the cart was already empty
+    public boolean clear(Long userId) {
+        boolean cleared = cartRepo.clearCart(userId) > 0;
+        if (store.isEnabled()) store.discard(userId);
+        return cleared;
+    }
 
-    public List<CartItem> list(String username) {
-        User u = userRepo.findByUsername(username).orElseThrow();
-        return cartRepo.findByUser(u);
-    }
-    public CartItem add(String username, Long pid, int qty) {
-        User u = userRepo.findByUsername(username).orElseThrow();
-        Product p = prodRepo.findById(pid).orElseThrow();
-        List<CartItem> items = cartRepo.findByUser(u);
-        for (CartItem it: items) {
-            if (it.getProduct().getId().equals(pid)) {
-                it.setQty(it.getQty() + qty);
-                return cartRepo.save(it);
+    // ✅ Checkout reads cart_item: buffered edits are written first and further edits wait until it has committed
+    public <T> T checkout(Long userId, Supplier<T> checkout) {
+        return store.isEnabled() ? store.checkout(userId, checkout) : checkout.get();
+    }
+
+    public void remove(Long userId, Long pid) {
+        cartRepo.deleteByUserAndProduct(userRepo.getReferenceById(userId), prodRepo.getReferenceById(pid));
+    }
+
+    private int upsert(Long userId, Long pid, int qty) {
+        for (int attempt = 1; ; attempt++) {
+            try {
+                if (mysql) cartRepo.upsertAdd(userId, pid, qty);
+                else cartRepo.upsertAddH2(userId, pid, qty);
+                return cartRepo.findQty(userId, pid);
+            } catch (DuplicateKeyException e) {
+                // Lost the insert race to a concurrent add of the same line; the retry takes the update path
+                if (attempt >= UPSERT_ATTEMPTS) throw e;
+            } catch (DataIntegrityViolationException e) {
+                // Only the product_id foreign key can fail here
+                throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Product not found");
+            } catch (ConcurrencyFailureException e) {
+                // InnoDB can pick an upsert as a deadlock victim when the same line is hit concurrently
+                if (attempt >= UPSERT_ATTEMPTS) throw e;
             }
         }
-        CartItem ci = new CartItem();
-        ci.setUser(u);
-        ci.setProduct(p);
-        ci.setQty(qty);
-        return cartRepo.save(ci);
     }
-    public void remove(String username, Long pid) {
-        User u = userRepo.findByUsername(username).orElseThrow();
-        Product p = prodRepo.findById(pid).orElseThrow();
-        cartRepo.deleteByUserAndProduct(u,p);
+
+    private CartItem owned(Long userId, Long cartItemId, String forbidden) {
+        CartItem item = cartRepo.findById(cartItemId)
+                .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "❌ Cart item not found"));
+        if (!item.getUser().getId().equals(userId)) {
+            throw new ResponseStatusException(HttpStatus.FORBIDDEN, forbidden);
+        }
+        return item;
     }
 }
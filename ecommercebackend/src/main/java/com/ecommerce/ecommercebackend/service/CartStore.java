@@ -0,0 +1,341 @@
+package com.ecommerce.ecommercebackend.service;
+
+import com.ecommerce.ecommercebackend.dto.CartItemView;
+import com.ecommerce.ecommercebackend.repository.CartItemRepository;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * Optional in-memory cart tier (cart.store.enabled=true), one lock per user's cart.
+ *
+ * Quantity changes and removals are applied in memory and flushed to cart_item in coalesced
+ * JDBC batches every cart.store.flush-interval-ms, before checkout and on shutdown.
+ * Adds and checkout are write-through (see writeThrough / checkout): they hold the cart's lock,
+ * so a line never exists only in memory and no edit lands between the flush and the database write.
+ *
+ * Crash semantics: the database is the source of truth. A crash loses at most the +/- edits
+ * and removals of the last flush interval; carts reload from cart_item on next access.
+ * State is per instance, so only enable this with a single instance or sticky sessions.
+ */
+@Service
+public class CartStore {
+
+    private static final Logger log = LoggerFactory.getLogger(CartStore.class);
+
+    private final CartItemRepository cartRepo;
+    private final JdbcTemplate jdbc;
+    private final boolean enabled;
+    private final long idleEvictNanos;
+
+    private final ConcurrentHashMap<Long, UserCart> carts = new ConcurrentHashMap<>();
+
+    private final AtomicLong flushes = new AtomicLong();
+    private final AtomicLong flushFailures = new AtomicLong();
+    private final AtomicLong flushedRows = new AtomicLong();
+    private final AtomicLong lastBatchSize = new AtomicLong();
+    private final AtomicLong lastFlushLagMs = new AtomicLong();
+    private final AtomicLong maxFlushLagMs = new AtomicLong();
+
+    // Lines in insertion order; dirty/removed hold what cart_item has not seen yet
+    private static final class UserCart {
+        final ReentrantLock lock = new ReentrantLock();
+        final LinkedHashMap<Long, CartItemView> lines = new LinkedHashMap<>();
+        final Map<Long, Integer> dirty = new HashMap<>();
+        final Set<Long> removed = new HashSet<>();
+        boolean loaded;
+        long dirtySince;   // nanoTime of the oldest unflushed change, 0 when clean
+        long lastAccess;
+
+        boolean isClean() {
+            return dirty.isEmpty() && removed.isEmpty();
+        }
+    }
+
+    // What one flush writes for one cart, compared back afterwards so newer edits stay dirty
+    private record Pending(Long userId, UserCart cart, Map<Long, Integer> qty, Set<Long> removed, long since) {}
+
+    public CartStore(CartItemRepository cartRepo,
+                     JdbcTemplate jdbc,
+                     @Value("${cart.store.enabled:false}") boolean enabled,
+                     @Value("${cart.store.idle-evict:10m}") Duration idleEvict) {
+        this.cartRepo = cartRepo;
+        this.jdbc = jdbc;
+        this.enabled = enabled;
+        this.idleEvictNanos = idleEvict.toNanos();
+        if (enabled) log.info("🛒 Write-behind cart store enabled");
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public List<CartItemView> list(Long userId) {
+        return withCart(userId, cart -> new ArrayList<>(cart.lines.values()));
+    }
+
+    public void updateQty(Long userId, Long cartItemId, int qty) {
+        withCart(userId, cart -> {
+            cart.lines.put(cartItemId, withQty(owned(cart, cartItemId), qty));
+            cart.dirty.put(cartItemId, qty);
+            markDirty(cart);
+            return null;
+        });
+    }
+
+    public void remove(Long userId, Long cartItemId) {
+        withCart(userId, cart -> {
+            owned(cart, cartItemId);
+            cart.lines.remove(cartItemId);
+            cart.dirty.remove(cartItemId);
+            cart.removed.add(cartItemId);
+            markDirty(cart);
+            return null;
+        });
+    }
+
+    // ✅ A change made straight in cart_item (add): pending edits are written first and the cart stays locked
+    // until it is done, then the cached lines reload on next access. Edits whose write failed stay pending.
+    public <T> T writeThrough(Long userId, Supplier<T> change) {
+        UserCart cart = lockLive(userId);
+        try {
+            Pending p = pending(userId, cart);
+            if (p != null) tryWrite(List.of(p));
+            return change.get();
+        } finally {
+            invalidate(userId, cart);
+            cart.lock.unlock();
+        }
+    }
+
+    // ✅ Checkout reads and clears cart_item in its own transaction. Every buffered edit must be in the database
+    // first, so a failed flush fails the checkout, and edits wait on the lock until the order has committed.
+    public <T> T checkout(Long userId, Supplier<T> checkout) {
+        UserCart cart = lockLive(userId);
+        try {
+            Pending p = pending(userId, cart);
+            if (p != null) write(List.of(p));
+            return checkout.get();
+        } finally {
+            invalidate(userId, cart);
+            cart.lock.unlock();
+        }
+    }
+
+    // The user's cart_item rows were deleted (checkout, clear): buffered edits have nothing left to apply to
+    public void discard(Long userId) {
+        UserCart cart = carts.get(userId);
+        if (cart == null) return;
+        cart.lock.lock();
+        try {
+            carts.remove(userId, cart);
+        } finally {
+            cart.lock.unlock();
+        }
+    }
+
+    // ✅ Coalesced flush of every dirty cart in one JDBC batch, then evict idle clean carts
+    @Scheduled(fixedDelayString = "${cart.store.flush-interval-ms:2000}")
+    public void flushAll() {
+        flushAll(false);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        if (enabled) flushAll(true);
+    }
+
+    // Without wait, carts busy in a checkout or add (which write them themselves) are left for the next run
+    private void flushAll(boolean wait) {
+        if (!enabled || carts.isEmpty()) return;
+        List<Pending> batch = new ArrayList<>();
+        for (Map.Entry<Long, UserCart> e : carts.entrySet()) {
+            UserCart cart = e.getValue();
+            if (wait) {
+                cart.lock.lock();
+            } else if (!cart.lock.tryLock()) {
+                continue;
+            }
+            try {
+                Pending p = pending(e.getKey(), cart);
+                if (p != null) batch.add(p);
+            } finally {
+                cart.lock.unlock();
+            }
+        }
+        if (!batch.isEmpty()) tryWrite(batch);
+
+        long idleBefore = System.nanoTime() - idleEvictNanos;
+        for (Map.Entry<Long, UserCart> e : carts.entrySet()) {
+            UserCart cart = e.getValue();
+            if (!cart.lock.tryLock()) continue;
+            try {
+                if (cart.isClean() && cart.lastAccess < idleBefore) carts.remove(e.getKey(), cart);
+            } finally {
+                cart.lock.unlock();
+            }
+        }
+    }
+
+    public Map<String, Object> stats() {
+        long pending = carts.values().stream().filter(c -> !c.isClean()).count();
+        Map<String, Object> out = new LinkedHashMap<>();
+        out.put("enabled", enabled);
+        out.put("cachedCarts", carts.size());
+        out.put("dirtyCarts", pending);
+        out.put("flushes", flushes.get());
+        out.put("flushFailures", flushFailures.get());
+        out.put("flushedRows", flushedRows.get());
+        out.put("lastBatchSize", lastBatchSize.get());
+        out.put("lastFlushLagMs", lastFlushLagMs.get());
+        out.put("maxFlushLagMs", maxFlushLagMs.get());
+        return out;
+    }
+
+    public long flushCount() { return flushes.get(); }
+    public long flushFailureCount() { return flushFailures.get(); }
+    public long lastBatchSize() { return lastBatchSize.get(); }
+    public long lastFlushLagMs() { return lastFlushLagMs.get(); }
+    public int cachedCarts() { return carts.size(); }
+
+    private <T> T withCart(Long userId, Function<UserCart, T> action) {
+        while (true) {
+            UserCart cart = carts.computeIfAbsent(userId, k -> new UserCart());
+            cart.lock.lock();
+            try {
+                // Evicted between lookup and lock: start again on the live instance
+                if (carts.get(userId) != cart) continue;
+                if (!cart.loaded) {
+                    // Edits whose flush failed are still pending: show them over the rows they haven't reached
+                    for (CartItemView v : cartRepo.findViewsByUserId(userId)) {
+                        if (cart.removed.contains(v.getId())) continue;
+                        Integer qty = cart.dirty.get(v.getId());
+                        cart.lines.put(v.getId(), qty == null ? v : withQty(v, qty));
+                    }
+                    cart.loaded = true;
+                }
+                cart.lastAccess = System.nanoTime();
+                return action.apply(cart);
+            } finally {
+                cart.lock.unlock();
+            }
+        }
+    }
+
+    private static CartItemView owned(UserCart cart, Long cartItemId) {
+        CartItemView line = cart.lines.get(cartItemId);
+        if (line == null) {
+            // Other users' lines are simply not in this cart
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND, "❌ Cart item not found");
+        }
+        return line;
+    }
+
+    // Locked and still the live instance for this user (not evicted between lookup and lock)
+    private UserCart lockLive(Long userId) {
+        while (true) {
+            UserCart cart = carts.computeIfAbsent(userId, k -> new UserCart());
+            cart.lock.lock();
+            if (carts.get(userId) == cart) return cart;
+            cart.lock.unlock();
+        }
+    }
+
+    // cart_item changed underneath the cached lines: drop them, keeping only edits not yet written. Lock held.
+    private void invalidate(Long userId, UserCart cart) {
+        if (cart.isClean()) {
+            carts.remove(userId, cart);
+        } else {
+            cart.lines.clear();
+            cart.loaded = false;
+        }
+    }
+
+    private static CartItemView withQty(CartItemView line, int qty) {
+        return new CartItemView(line.getId(), qty, line.getProduct().getId(),
+                line.getProduct().getName(), line.getProduct().getPrice(), line.getProduct().getImageUrl());
+    }
+
+    private static void markDirty(UserCart cart) {
+        if (cart.dirtySince == 0) cart.dirtySince = System.nanoTime();
+    }
+
+    // Lock held
+    private static Pending pending(Long userId, UserCart cart) {
+        if (cart.isClean()) return null;
+        return new Pending(userId, cart, new HashMap<>(cart.dirty), new HashSet<>(cart.removed), cart.dirtySince);
+    }
+
+    // ✅ One batch for everyone; when it fails each cart is written on its own, so a bad row only holds back
+    // its owner's edits instead of every user's on every retry. Failures stay dirty for the next flush.
+    private void tryWrite(List<Pending> batch) {
+        try {
+            write(batch);
+        } catch (RuntimeException e) {
+            if (batch.size() == 1) return;
+            for (Pending p : batch) {
+                try {
+                    write(List.of(p));
+                } catch (RuntimeException ignored) {
+                    // Counted and logged by write
+                }
+            }
+        }
+    }
+
+    private void write(List<Pending> batch) {
+        List<Object[]> updates = new ArrayList<>();
+        List<Object[]> deletes = new ArrayList<>();
+        long oldest = Long.MAX_VALUE;
+        for (Pending p : batch) {
+            p.qty().forEach((id, qty) -> updates.add(new Object[]{qty, id, p.userId()}));
+            p.removed().forEach(id -> deletes.add(new Object[]{id, p.userId()}));
+            oldest = Math.min(oldest, p.since());
+        }
+
+        try {
+            // Idempotent statements: a failed or partial batch is simply written again next time
+            if (!updates.isEmpty()) jdbc.batchUpdate("UPDATE cart_item SET qty = ? WHERE id = ? AND user_id = ?", updates);
+            if (!deletes.isEmpty()) jdbc.batchUpdate("DELETE FROM cart_item WHERE id = ? AND user_id = ?", deletes);
+        } catch (RuntimeException e) {
+            flushFailures.incrementAndGet();
+            log.warn("Cart flush of {} rows for {} carts failed, will retry: {}",
+                    updates.size() + deletes.size(), batch.size(), e.getMessage());
+            throw e;
+        }
+
+        for (Pending p : batch) {
+            UserCart cart = p.cart();
+            cart.lock.lock();
+            try {
+                p.qty().forEach((id, qty) -> cart.dirty.remove(id, qty));
+                cart.removed.removeAll(p.removed());
+                cart.dirtySince = cart.isClean() ? 0 : System.nanoTime();
+            } finally {
+                cart.lock.unlock();
+            }
+        }
+
+        long rows = updates.size() + deletes.size();
+        long lagMs = (System.nanoTime() - oldest) / 1_000_000;
+        flushes.incrementAndGet();
+        flushedRows.addAndGet(rows);
+        lastBatchSize.set(rows);
+        lastFlushLagMs.set(lagMs);
+        maxFlushLagMs.accumulateAndGet(lagMs, Math::max);
+    }
+}
@@ -0,0 +1,151 @@
+package com.ecommerce.ecommercebackend.service;
+
+import com.ecommerce.ecommercebackend.config.ReadRouting;
+import com.ecommerce.ecommercebackend.repository.CategoryRepository;
+import com.ecommerce.ecommercebackend.repository.ProductRepository;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Service;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+import java.util.zip.CRC32;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Pre-serialized JSON of the product and category lists.
+ * Built once per catalog version and served as raw bytes (plain or gzip) with a strong ETag per coding.
+ */
+@Service
+@RequiredArgsConstructor
+public class CatalogSnapshotService {
+
+    private final ProductRepository productRepo;
+    private final CategoryRepository categoryRepo;
+    private final ObjectMapper objectMapper;
+
+    private final AtomicLong version = new AtomicLong(1);
+    // Cache metrics: snapshot lookups, how many had to rebuild, and 304s sent
+    private final AtomicLong lookups = new AtomicLong();
+    private final AtomicLong rebuilds = new AtomicLong();
+    private final AtomicLong notModified = new AtomicLong();
+    // Not synchronized: the build blocks on JDBC and would pin a virtual thread's carrier
+    private final ReentrantLock buildLock = new ReentrantLock();
+
+    private volatile Snapshot products;
+    private volatile Snapshot categories;
+
+    public record Snapshot(long version, String etag, byte[] json, byte[] gzip) {
+        // "<kind><version>-<crc>-gz"
+        public String gzipEtag() {
+            return etag.substring(0, etag.length() - 1) + "-gz\"";
+        }
+    }
+
+    // ✅ Called after every product / category write
+    public void bump() {
+        version.incrementAndGet();
+    }
+
+    public long version() {
+        return version.get();
+    }
+
+    public Snapshot products() {
+        lookups.incrementAndGet();
+        Snapshot s = products;
+        if (s != null && s.version() == version.get()) return s;
+        buildLock.lock();
+        try {
+            s = products;
+            if (s == null || s.version() != version.get()) {
+                s = build("p", productRepo::findAll);
+                products = s;
+            }
+            return s;
+        } finally {
+            buildLock.unlock();
+        }
+    }
+
+    public Snapshot categories() {
+        lookups.incrementAndGet();
+        Snapshot s = categories;
+        if (s != null && s.version() == version.get()) return s;
+        buildLock.lock();
+        try {
+            s = categories;
+            if (s == null || s.version() != version.get()) {
+                s = build("c", categoryRepo::findAll);
+                categories = s;
+            }
+            return s;
+        } finally {
+            buildLock.unlock();
+        }
+    }
+
+    // ✅ 304 when the client already has this version (in either coding), gzip when the client accepts it
+    public ResponseEntity<byte[]> respond(Snapshot s, String ifNoneMatch, String acceptEncoding) {
+        boolean gzip = acceptEncoding != null && acceptEncoding.toLowerCase().contains("gzip");
+        HttpHeaders headers = new HttpHeaders();
+        // A strong validator names one exact body, so the gzip body gets an ETag of its own
+        headers.setETag(gzip ? s.gzipEtag() : s.etag());
+        headers.setCacheControl("no-cache");
+        headers.add(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+
+        if (ifNoneMatch != null && (ifNoneMatch.trim().equals("*")
+                || ifNoneMatch.contains(s.etag()) || ifNoneMatch.contains(s.gzipEtag()))) {
+            notModified.incrementAndGet();
+            return new ResponseEntity<>(headers, HttpStatus.NOT_MODIFIED);
+        }
+
+        headers.setContentType(MediaType.APPLICATION_JSON);
+        if (gzip) {
+            headers.add(HttpHeaders.CONTENT_ENCODING, "gzip");
+            headers.setContentLength(s.gzip().length);
+            return new ResponseEntity<>(s.gzip(), headers, HttpStatus.OK);
+        }
+        headers.setContentLength(s.json().length);
+        return new ResponseEntity<>(s.json(), headers, HttpStatus.OK);
+    }
+
+    public long hitCount() { return lookups.get() - rebuilds.get(); }
+    public long rebuildCount() { return rebuilds.get(); }
+    public long notModifiedCount() { return notModified.get(); }
+
+    private Snapshot build(String kind, Supplier<?> loader) {
+        rebuilds.incrementAndGet();
+        // Read the version before loading so a write during the build leaves this snapshot stale
+        long v = version.get();
+        try {
+            // The snapshot lives until the next bump, so it must not come from a lagging replica
+            byte[] json = objectMapper.writeValueAsBytes(ReadRouting.onPrimary(loader));
+            CRC32 crc = new CRC32();
+            crc.update(json);
+            String etag = "\"" + kind + v + "-" + Long.toHexString(crc.getValue()) + "\"";
+            return new Snapshot(v, etag, json, gzip(json));
+        } catch (JsonProcessingException e) {
+            throw new RuntimeException("Failed to serialize catalog snapshot", e);
+        }
+    }
+
+    private static byte[] gzip(byte[] json) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(json.length / 4 + 64);
+        try (GZIPOutputStream gz = new GZIPOutputStream(out)) {
+            gz.write(json);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return out.toByteArray();
+    }
+}
@@ -0,0 +1,184 @@
+package com.ecommerce.ecommercebackend.service;
+
+import com.ecommerce.ecommercebackend.config.ReadRouting;
+import com.ecommerce.ecommercebackend.dto.CategoryMenuEntry;
+import com.ecommerce.ecommercebackend.entity.Category;
+import com.ecommerce.ecommercebackend.repository.CategoryRepository;
+import lombok.RequiredArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Service;
+
+import java.util.*;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * id ↔ name for every category plus live product counts per category.
+ * Loaded once at startup; after that, category and product writes adjust it in place,
+ * so name lookups and category menus never hit the database.
+ */
+@Service
+@RequiredArgsConstructor
+public class CategoryDictionary {
+
+    private static final Logger log = LoggerFactory.getLogger(CategoryDictionary.class);
+
+    private final CategoryRepository categoryRepo;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final ReentrantLock rebuildLock = new ReentrantLock();
+
+    private final Map<Long, String> names = new HashMap<>();
+    // Category.normalize(name) -> id
+    private final Map<String, Long> ids = new HashMap<>();
+    private final Map<Long, Integer> productCounts = new HashMap<>();
+    // Changes made while rebuild() loads its snapshot, replayed over it in order; null when no rebuild runs
+    private List<Runnable> replay;
+
+    // Before the search and facet indexes, which read category names from here.
+    // Lookups keep using the old maps while categories load; writes that land meanwhile are replayed over the snapshot.
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        // One rebuild at a time: a second one would swap the replay list out from under the first
+        rebuildLock.lock();
+        try {
+            load();
+        } finally {
+            rebuildLock.unlock();
+        }
+    }
+
+    private void load() {
+        long start = System.currentTimeMillis();
+        lock.writeLock().lock();
+        try {
+            replay = new ArrayList<>();
+        } finally {
+            lock.writeLock().unlock();
+        }
+        List<Category> all = null;
+        List<Object[]> counts = null;
+        try {
+            // Kept current by writes from here on, so start from the primary, not a lagging replica
+            all = ReadRouting.onPrimary(categoryRepo::findAll);
+            counts = ReadRouting.onPrimary(categoryRepo::countProductsByCategory);
+        } finally {
+            lock.writeLock().lock();
+            try {
+                if (counts != null) {
+                    names.clear();
+                    ids.clear();
+                    productCounts.clear();
+                    for (Category c : all) put(c);
+                    for (Object[] row : counts) {
+                        productCounts.put((Long) row[0], ((Number) row[1]).intValue());
+                    }
+                    replay.forEach(Runnable::run);
+                }
+                replay = null;
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+        log.info("📚 Category dictionary built: {} categories in {} ms", all.size(), System.currentTimeMillis() - start);
+    }
+
+    public Optional<Long> idOf(String name) {
+        String key = Category.normalize(name);
+        if (key == null) return Optional.empty();
+        lock.readLock().lock();
+        try {
+            return Optional.ofNullable(ids.get(key));
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public String nameOf(Long id) {
+        lock.readLock().lock();
+        try {
+            return names.get(id);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public int productCount(Long id) {
+        lock.readLock().lock();
+        try {
+            return productCounts.getOrDefault(id, 0);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // ✅ Category menu: every category with its product count, alphabetical
+    public List<CategoryMenuEntry> menu() {
+        lock.readLock().lock();
+        try {
+            List<CategoryMenuEntry> out = new ArrayList<>(names.size());
+            for (Map.Entry<Long, String> e : names.entrySet()) {
+                out.add(new CategoryMenuEntry(e.getKey(), e.getValue(), productCounts.getOrDefault(e.getKey(), 0)));
+            }
+            out.sort(Comparator.comparing(CategoryMenuEntry::getName, String.CASE_INSENSITIVE_ORDER));
+            return out;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // Added or renamed
+    public void register(Category c) {
+        if (c == null || c.getId() == null) return;
+        Long id = c.getId();
+        String name = c.getName();
+        update(() -> {
+            String old = names.get(id);
+            if (old != null) ids.remove(Category.normalize(old));
+            put(id, name);
+        });
+    }
+
+    public void unregister(Long id) {
+        update(() -> {
+            String old = names.remove(id);
+            if (old != null) ids.remove(Category.normalize(old));
+            productCounts.remove(id);
+        });
+    }
+
+    // ✅ Product created, deleted or recategorized: from/to may be null (no category)
+    public void productMoved(Long fromCategoryId, Long toCategoryId) {
+        if (Objects.equals(fromCategoryId, toCategoryId)) return;
+        update(() -> {
+            if (fromCategoryId != null) productCounts.computeIfPresent(fromCategoryId, (k, n) -> n > 1 ? n - 1 : null);
+            if (toCategoryId != null) productCounts.merge(toCategoryId, 1, Integer::sum);
+        });
+    }
+
+    private void update(Runnable change) {
+        lock.writeLock().lock();
+        try {
+            change.run();
+            if (replay != null) replay.add(change);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void put(Category c) {
+        put(c.getId(), c.getName());
+    }
+
+    private void put(Long id, String name) {
+        if (name == null) return;
+        names.put(id, name);
+        ids.put(Category.normalize(name), id);
+    }
+}
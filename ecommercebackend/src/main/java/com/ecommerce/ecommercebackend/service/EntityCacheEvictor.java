@@ -0,0 +1,51 @@
+package com.ecommerce.ecommercebackend.service;
+
+import com.ecommerce.ecommercebackend.entity.Category;
+import com.ecommerce.ecommercebackend.entity.Product;
+import jakarta.persistence.Cache;
+import jakarta.persistence.EntityManagerFactory;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Second-level cache eviction for writes Hibernate doesn't see (JdbcTemplate statements).
+ * Repository saves, deletes and JPQL updates need none of this: Hibernate keeps the regions in step itself.
+ *
+ * Evictions run after commit; before it, a concurrent read would just put the old row back.
+ */
+@Service
+@RequiredArgsConstructor
+public class EntityCacheEvictor {
+
+    private final EntityManagerFactory emf;
+
+    public void productsChanged(Collection<Long> productIds) {
+        List<Long> ids = List.copyOf(productIds);
+        afterCommit(() -> {
+            Cache cache = emf.getCache();
+            ids.forEach(id -> cache.evict(Product.class, id));
+        });
+    }
+
+    public void categoriesChanged() {
+        afterCommit(() -> emf.getCache().evict(Category.class));
+    }
+
+    private static void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+}
@@ -0,0 +1,213 @@
+package com.ecommerce.ecommercebackend.service;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.io.SerializedString;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+
+import javax.sql.DataSource;
+import java.io.*;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Row-at-a-time exports of orders and products as NDJSON or CSV.
+ * Rows come off a forward-only JDBC cursor and are written straight to the response stream,
+ * so heap use does not depend on how many rows are exported.
+ */
+@Service
+public class ExportService {
+
+    private static final Logger log = LoggerFactory.getLogger(ExportService.class);
+
+    public enum Format { NDJSON, CSV }
+
+    private static final String ORDERS =
+            "SELECT s.id, s.user_id, s.status, s.total, s.item_count, s.created_at, s.line_snapshots " +
+            "FROM order_summary s WHERE s.created_at >= ? AND s.created_at < ?";
+
+    private static final String PRODUCTS =
+            "SELECT p.id, p.name, p.description, p.price, p.qty, p.image_url, p.avg_rating, c.id, c.name " +
+            "FROM product p LEFT JOIN category c ON c.id = p.category_id ORDER BY p.id";
+
+    private static final String[] ORDER_COLUMNS = {"id", "userId", "status", "total", "itemCount", "createdAt", "items"};
+    private static final String[] PRODUCT_COLUMNS = {"id", "name", "description", "price", "qty", "imageUrl",
+            "avgRating", "categoryId", "categoryName"};
+
+    // Open range bounds that every supported database accepts as DATETIME
+    private static final LocalDateTime EARLIEST = LocalDateTime.of(1970, 1, 1, 0, 0);
+    private static final LocalDateTime LATEST = LocalDateTime.of(9999, 12, 31, 0, 0);
+
+    private final JdbcTemplate cursor;
+    private final JsonFactory json;
+
+    public ExportService(DataSource dataSource, ObjectMapper objectMapper) throws SQLException {
+        this.cursor = new JdbcTemplate(dataSource);
+        // MySQL Connector/J buffers the whole result unless fetch size is MIN_VALUE (row streaming)
+        String product;
+        try (Connection con = dataSource.getConnection()) {
+            product = con.getMetaData().getDatabaseProductName();
+        }
+        this.cursor.setFetchSize("MySQL".equalsIgnoreCase(product) ? Integer.MIN_VALUE : 1000);
+        this.json = objectMapper.getFactory();
+    }
+
+    public long exportOrders(OutputStream out, Format format, LocalDateTime from, LocalDateTime to, String status)
+            throws IOException {
+        String sql = ORDERS + (status != null ? " AND s.status = ?" : "") + " ORDER BY s.id";
+        List<Object> args = new ArrayList<>(List.of(
+                Timestamp.valueOf(from != null ? from : EARLIEST),
+                Timestamp.valueOf(to != null ? to : LATEST)));
+        if (status != null) args.add(status);
+
+        return stream(out, format, ORDER_COLUMNS, sql, args.toArray(), (rs, row) -> {
+            row.number("id", rs.getLong(1));
+            row.number("userId", rs.getLong(2));
+            row.text("status", rs.getString(3));
+            row.decimal("total", rs.getBigDecimal(4));
+            row.number("itemCount", rs.getInt(5));
+            Timestamp created = rs.getTimestamp(6);
+            row.text("createdAt", created != null ? created.toLocalDateTime().toString() : null);
+            row.rawJson("items", rs.getString(7));
+        });
+    }
+
+    public long exportProducts(OutputStream out, Format format) throws IOException {
+        return stream(out, format, PRODUCT_COLUMNS, PRODUCTS, new Object[0], (rs, row) -> {
+            row.number("id", rs.getLong(1));
+            row.text("name", rs.getString(2));
+            row.text("description", rs.getString(3));
+            row.decimal("price", rs.getBigDecimal(4));
+            row.number("qty", rs.getInt(5));
+            row.text("imageUrl", rs.getString(6));
+            row.decimal("avgRating", rs.getBigDecimal(7));
+            long categoryId = rs.getLong(8);
+            row.number("categoryId", rs.wasNull() ? null : categoryId);
+            row.text("categoryName", rs.getString(9));
+        });
+    }
+
+    @FunctionalInterface
+    private interface RowMapper {
+        void write(ResultSet rs, RowWriter row) throws SQLException, IOException;
+    }
+
+    private long stream(OutputStream raw, Format format, String[] columns, String sql, Object[] args, RowMapper mapper)
+            throws IOException {
+        long start = System.nanoTime();
+        BufferedOutputStream out = new BufferedOutputStream(raw, 64 * 1024);
+        RowWriter row = format == Format.CSV ? new CsvRow(out, columns) : new JsonRow(json, out);
+        long[] rows = {0};
+        cursor.query(sql, rs -> {
+            try {
+                row.begin();
+                mapper.write(rs, row);
+                row.end();
+                rows[0]++;
+            } catch (IOException e) {
+                // Client went away mid-download: stop reading the cursor
+                throw new UncheckedIOException(e);
+            }
+        }, args);
+        row.close();
+        out.flush();
+        log.info("📤 Exported {} rows as {} in {} ms", rows[0], format, (System.nanoTime() - start) / 1_000_000);
+        return rows[0];
+    }
+
+    // One output row; columns are written in the order they are declared
+    private interface RowWriter {
+        void begin() throws IOException;
+        void number(String name, Number value) throws IOException;
+        void decimal(String name, BigDecimal value) throws IOException;
+        void text(String name, String value) throws IOException;
+        void rawJson(String name, String json) throws IOException;
+        void end() throws IOException;
+        void close() throws IOException;
+    }
+
+    private static final class JsonRow implements RowWriter {
+        private final JsonGenerator gen;
+        private boolean any;
+
+        JsonRow(JsonFactory factory, OutputStream out) throws IOException {
+            this.gen = factory.createGenerator(out);
+            this.gen.setRootValueSeparator(new SerializedString("\n"));
+            this.gen.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+        }
+
+        public void begin() throws IOException {
+            any = true;
+            gen.writeStartObject();
+        }
+
+        public void number(String name, Number value) throws IOException {
+            if (value == null) gen.writeNullField(name);
+            else gen.writeNumberField(name, value.longValue());
+        }
+
+        public void decimal(String name, BigDecimal value) throws IOException {
+            if (value == null) gen.writeNullField(name);
+            else gen.writeNumberField(name, value);
+        }
+
+        public void text(String name, String value) throws IOException { gen.writeStringField(name, value); }
+
+        public void rawJson(String name, String value) throws IOException {
+            gen.writeFieldName(name);
+            if (value == null) gen.writeNull();
+            else gen.writeRawValue(value);
+        }
+
+        public void end() throws IOException { gen.writeEndObject(); }
+
+        public void close() throws IOException {
+            // Trailing newline so the last record is a complete NDJSON line; an empty export stays empty
+            if (any) gen.writeRaw('\n');
+            gen.flush();
+        }
+    }
+
+    private static final class CsvRow implements RowWriter {
+        private final Writer out;
+        private boolean first;
+
+        CsvRow(OutputStream out, String[] columns) throws IOException {
+            this.out = new OutputStreamWriter(out, StandardCharsets.UTF_8);
+            this.out.write(String.join(",", columns));
+            this.out.write("\r\n");
+        }
+
+        public void begin() { first = true; }
+        public void number(String name, Number value) throws IOException { cell(value == null ? "" : value.toString()); }
+        public void decimal(String name, BigDecimal value) throws IOException { cell(value == null ? "" : value.toPlainString()); }
+        public void text(String name, String value) throws IOException { cell(value); }
+        public void rawJson(String name, String value) throws IOException { cell(value); }
+        public void end() throws IOException { out.write("\r\n"); }
+        public void close() throws IOException { out.flush(); }
+
+        private void cell(String value) throws IOException {
+            if (!first) out.write(',');
+            first = false;
+            if (value == null) return;
+            if (value.indexOf(',') >= 0 || value.indexOf('"') >= 0 || value.indexOf('\n') >= 0 || value.indexOf('\r') >= 0) {
+                out.write('"');
+                out.write(value.replace("\"", "\"\""));
+                out.write('"');
+            } else {
+                out.write(value);
+            }
+        }
+    }
+}
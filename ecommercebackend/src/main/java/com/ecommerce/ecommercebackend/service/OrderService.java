@@ -1,65 +1,179 @@
 package com.ecommerce.ecommercebackend.service;
 
+import com.ecommerce.ecommercebackend.dto.OrderHistoryPage;
 import com.ecommerce.ecommercebackend.entity.*;
 import com.ecommerce.ecommercebackend.repository.*;
+import io.micrometer.core.annotation.Timed;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
 import lombok.RequiredArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 import java.math.BigDecimal;
-import java.util.List;
+import java.time.LocalDateTime;
+import java.util.*;
 
+@Timed(value = "service.calls", histogram = true)
 @Service
 @RequiredArgsConstructor
 public class OrderService {
+    private static final Logger log = LoggerFactory.getLogger(OrderService.class);
+
+    public static final int MAX_HISTORY_PAGE = 100;
+    private static final int BACKFILL_BATCH = 200;
+
+    // Open range bounds that every supported database accepts as DATETIME
+    private static final LocalDateTime EARLIEST = LocalDateTime.of(1970, 1, 1, 0, 0);
+    private static final LocalDateTime LATEST = LocalDateTime.of(9999, 12, 31, 0, 0);
+
     private final CartItemRepository cartRepo;
     private final OrderRepository orderRepo;
-    private final OrderItemRepository oiRepo;
+    private final OrderSummaryRepository summaryRepo;
     private final UserRepository userRepo;
+    private final StockReservationService stock;
+    private final TransactionTemplate tx;
+
+    @PersistenceContext
+    private EntityManager em;
 
     @Transactional
-    public Order checkout(String username) {
-        // 1️⃣ Find user
-        User u = userRepo.findByUsername(username)
-                .orElseThrow(() -> new RuntimeException("User not found"));
+    public Order checkout(Long userId) {
+        // 1️⃣ User reference (id comes from the session via UserCache, no lookup needed)
+        User u = userRepo.getReferenceById(userId);
 
-        // 2️⃣ Get cart items
-        List<CartItem> items = cartRepo.findByUser(u);
+        // 2️⃣ Get cart items (products fetched in the same query)
+        List<CartItem> items = cartRepo.findByUserIdWithProduct(userId);
         if (items.isEmpty()) {
             throw new RuntimeException("Cart is empty");
         }
 
-        // 3️⃣ Create order
+        // 3️⃣ Reserve stock for every line or fail the whole checkout (rolls back on any short line)
+        Map<Long, Integer> qtyByProduct = new HashMap<>();
+        for (CartItem ci : items) {
+            qtyByProduct.merge(ci.getProduct().getId(), ci.getQty(), Integer::sum);
+        }
+        stock.reserve(qtyByProduct);
+
+        // 4️⃣ Build order + order items in memory
         Order o = new Order();
         o.setUser(u);
         o.setStatus("PAID"); // ✅ Auto mark as paid
-        o = orderRepo.save(o);
 
-        // 4️⃣ Add order items + total
         BigDecimal total = BigDecimal.ZERO;
+        List<OrderItem> lines = new ArrayList<>(items.size());
         for (CartItem ci : items) {
             OrderItem oi = new OrderItem();
             oi.setOrder(o);
             oi.setProduct(ci.getProduct());
             oi.setQty(ci.getQty());
             oi.setPrice(ci.getProduct().getPrice());
-            oiRepo.save(oi);
+            lines.add(oi);
 
             total = total.add(ci.getProduct().getPrice()
                     .multiply(BigDecimal.valueOf(ci.getQty())));
         }
-
+        o.setItems(lines);
         o.setTotal(total);
-        orderRepo.save(o);
 
-        // 5️⃣ Clear user cart
-        cartRepo.deleteAll(items);
+        // 5️⃣ Single write: order insert + all order items cascaded in one JDBC batch
+        o = orderRepo.save(o);
+
+        // 5️⃣b Read model for "My orders", same transaction and same flush as the order
+        summaryRepo.save(OrderSummary.of(o, userId));
 
-        // 6️⃣ Return order
+        // 6️⃣ Clear user cart with one bulk delete
+        cartRepo.clearCart(userId);
+
+        // 7️⃣ Return order
         return o;
     }
 
-    public List<Order> history(String username) {
-        User u = userRepo.findByUsername(username).orElseThrow();
-        return orderRepo.findByUser(u);
+    // ✅ One indexed read per page whatever the order sizes
+    @Transactional(readOnly = true)
+    public OrderHistoryPage history(Long userId, LocalDateTime from, LocalDateTime to, Long before, int size) {
+        int limit = clamp(size);
+        return page(summaryRepo.findPage(userId, cursor(before), orEarliest(from), orLatest(to),
+                PageRequest.of(0, limit + 1)), limit);
+    }
+
+    // Admin view: every user's orders, same shape and paging
+    @Transactional(readOnly = true)
+    public OrderHistoryPage allOrders(LocalDateTime from, LocalDateTime to, Long before, int size) {
+        int limit = clamp(size);
+        return page(summaryRepo.findAllPage(cursor(before), orEarliest(from), orLatest(to),
+                PageRequest.of(0, limit + 1)), limit);
+    }
+
+    // ✅ Returns false when the order was already paid (idempotent)
+    @Transactional
+    public boolean markPaid(Long orderId) {
+        Order o = orderRepo.findById(orderId).orElseThrow();
+        if ("PAID".equalsIgnoreCase(o.getStatus())) return false;
+        o.setStatus("PAID");
+        orderRepo.save(o);
+        summaryRepo.updateStatus(orderId, "PAID");
+        return true;
+    }
+
+    // ✅ Orders placed before the summary table existed get a summary once, from their current rows.
+    // Walks order ids in chunks, each chunk in its own transaction, so a big backlog never holds one
+    // long transaction (or a persistence context full of orders) while the app serves traffic.
+    @EventListener(ApplicationReadyEvent.class)
+    public void backfillSummaries() {
+        int total = 0;
+        BackfillChunk chunk = new BackfillChunk(0, 0);
+        while (true) {
+            long after = chunk.lastId();
+            chunk = tx.execute(s -> backfillChunk(after));
+            if (chunk == null) break;
+            total += chunk.written();
+        }
+        if (total > 0) log.info("🧾 Backfilled {} order summaries", total);
+    }
+
+    private record BackfillChunk(long lastId, int written) {}
+
+    // Next chunk of summary-less orders after the given id; null once none are left
+    private BackfillChunk backfillChunk(long after) {
+        List<Long> ids = summaryRepo.findOrderIdsWithoutSummary(after, PageRequest.of(0, BACKFILL_BATCH));
+        if (ids.isEmpty()) return null;
+        List<OrderSummary> batch = new ArrayList<>(ids.size());
+        for (Order o : orderRepo.findWithItemsByIdIn(ids)) {
+            // An order without a user has no "My orders" page to show up on
+            if (o.getUser() != null) batch.add(OrderSummary.of(o, o.getUser().getId()));
+        }
+        summaryRepo.saveAll(batch);
+        summaryRepo.flush();
+        em.clear();
+        return new BackfillChunk(ids.get(ids.size() - 1), batch.size());
+    }
+
+    // One extra row tells us whether another page exists without a count query
+    private static OrderHistoryPage page(List<OrderSummary> rows, int limit) {
+        if (rows.size() <= limit) return new OrderHistoryPage(rows, null);
+        List<OrderSummary> page = rows.subList(0, limit);
+        return new OrderHistoryPage(page, page.get(limit - 1).getId());
+    }
+
+    private static int clamp(int size) {
+        return Math.max(1, Math.min(size, MAX_HISTORY_PAGE));
+    }
+
+    private static Long cursor(Long before) {
+        return before != null ? before : Long.MAX_VALUE;
+    }
+
+    private static LocalDateTime orEarliest(LocalDateTime from) {
+        return from != null ? from : EARLIEST;
+    }
+
+    private static LocalDateTime orLatest(LocalDateTime to) {
+        return to != null ? to : LATEST;
     }
 }
@@ -0,0 +1,86 @@
+package com.ecommerce.ecommercebackend.service;
+
+import com.ecommerce.ecommercebackend.exception.PasswordHashingRejectedException;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * CPU bulkhead for BCrypt: hashing and verification run on a small pool sized below the core count,
+ * so a login burst can only keep that many cores busy and browsing requests keep the rest.
+ *
+ * It does not free request threads. The caller blocks until its hash is done (at most hash-timeout),
+ * so a burst still holds one Tomcat thread per waiting login; hash-queue caps how many may wait,
+ * and logins beyond it are rejected with 503 at once rather than queueing behind the others.
+ */
+@Service
+public class PasswordHashingService {
+
+    private static final Logger log = LoggerFactory.getLogger(PasswordHashingService.class);
+
+    private final ThreadPoolExecutor executor;
+    private final Duration timeout;
+
+    private final AtomicLong completed = new AtomicLong();
+    private final AtomicLong rejected = new AtomicLong();
+    private final AtomicLong timedOut = new AtomicLong();
+
+    public PasswordHashingService(@Value("${security.password.hash-threads:0}") int threads,
+                                  @Value("${security.password.hash-queue:64}") int queueCapacity,
+                                  @Value("${security.password.hash-timeout:5s}") Duration timeout) {
+        // Hashing is pure CPU: more threads than cores only adds latency
+        int size = threads > 0 ? threads : Math.max(1, Runtime.getRuntime().availableProcessors() / 2);
+        AtomicInteger n = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(size, size, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                r -> {
+                    Thread t = new Thread(r, "password-hash-" + n.incrementAndGet());
+                    t.setDaemon(true);
+                    return t;
+                },
+                (r, ex) -> {
+                    rejected.incrementAndGet();
+                    throw new PasswordHashingRejectedException("Too many concurrent logins, try again shortly");
+                });
+        this.timeout = timeout;
+        log.info("🔐 Password hashing pool: {} threads, queue {}, timeout {}", size, queueCapacity, timeout);
+    }
+
+    public <T> T run(Supplier<T> task) {
+        Future<T> f = executor.submit(task::get);
+        try {
+            T result = f.get(timeout.toMillis(), TimeUnit.MILLISECONDS);
+            completed.incrementAndGet();
+            return result;
+        } catch (TimeoutException e) {
+            f.cancel(true);
+            timedOut.incrementAndGet();
+            throw new PasswordHashingRejectedException("Password hashing timed out, try again shortly");
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException re) throw re;
+            throw new IllegalStateException(e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            f.cancel(true);
+            throw new PasswordHashingRejectedException("Interrupted while hashing password");
+        }
+    }
+
+    public ThreadPoolExecutor executor() { return executor; }
+    public long completedCount() { return completed.get(); }
+    public long rejectedCount() { return rejected.get(); }
+    public long timedOutCount() { return timedOut.get(); }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+}
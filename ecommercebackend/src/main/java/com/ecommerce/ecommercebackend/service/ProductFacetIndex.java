@@ -0,0 +1,286 @@
+package com.ecommerce.ecommercebackend.service;
+
+import com.ecommerce.ecommercebackend.config.ReadRouting;
+import com.ecommerce.ecommercebackend.dto.ProductFilterResponse.PriceBand;
+import com.ecommerce.ecommercebackend.entity.Product;
+import com.ecommerce.ecommercebackend.repository.ProductRepository;
+import lombok.RequiredArgsConstructor;
+import org.roaringbitmap.RoaringBitmap;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+import java.util.*;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Compressed bitmaps of product ids per category, price band and star band.
+ * Filters are bitmap intersections; facet counts are intersection cardinalities.
+ */
+@Service
+@RequiredArgsConstructor
+public class ProductFacetIndex {
+
+    private static final Logger log = LoggerFactory.getLogger(ProductFacetIndex.class);
+
+    // Price band upper bounds in ₹ (exclusive), the last band is open ended
+    private static final double[] PRICE_BOUNDS = {500, 1000, 2500, 5000, 10000, 25000, 50000};
+    // Star bands hold avgRating in [n, n+1), band 5 is exactly 5.0
+    private static final int STAR_BANDS = 6;
+
+    private final ProductRepository productRepo;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final ReentrantLock rebuildLock = new ReentrantLock();
+
+    private final RoaringBitmap all = new RoaringBitmap();
+    private final Map<Long, RoaringBitmap> byCategory = new HashMap<>();
+    private final RoaringBitmap[] byPrice = newBitmaps(PRICE_BOUNDS.length + 1);
+    private final RoaringBitmap[] byStars = newBitmaps(STAR_BANDS);
+    // Exact values, only needed for bands a filter bound cuts through
+    private final Map<Integer, Entry> entries = new HashMap<>();
+    // Changes made while rebuild() loads its snapshot, replayed over it in order; null when no rebuild runs
+    private List<Runnable> replay;
+
+    private volatile boolean ready;
+
+    private record Entry(Long categoryId, double price, double rating) {}
+
+    public record Facets(List<Long> ids,
+                         Map<Long, Integer> categoryCounts,
+                         List<PriceBand> priceHistogram,
+                         Map<Integer, Integer> ratingCounts) {}
+
+    // Filters keep using the old bitmaps while products load; index, remove and rating updates that land
+    // meanwhile are replayed over the snapshot, which may predate them
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        // One rebuild at a time: a second one would swap the replay list out from under the first
+        rebuildLock.lock();
+        try {
+            load();
+        } finally {
+            rebuildLock.unlock();
+        }
+    }
+
+    private void load() {
+        long start = System.currentTimeMillis();
+        lock.writeLock().lock();
+        try {
+            replay = new ArrayList<>();
+        } finally {
+            lock.writeLock().unlock();
+        }
+        List<Product> products = null;
+        try {
+            products = ReadRouting.onPrimary(productRepo::findAll);
+        } finally {
+            lock.writeLock().lock();
+            try {
+                if (products != null) {
+                    all.clear();
+                    byCategory.clear();
+                    for (RoaringBitmap b : byPrice) b.clear();
+                    for (RoaringBitmap b : byStars) b.clear();
+                    entries.clear();
+                    for (Product p : products) {
+                        add(docId(p.getId()), entry(p));
+                    }
+                    replay.forEach(Runnable::run);
+                    all.runOptimize();
+                    ready = true;
+                }
+                replay = null;
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+        log.info("🧮 Facet index built: {} products, {} categories in {} ms",
+                products.size(), byCategory.size(), System.currentTimeMillis() - start);
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    public void index(Product p) {
+        if (p == null || p.getId() == null) return;
+        int id = docId(p.getId());
+        Entry entry = entry(p);
+        update(() -> {
+            remove(id);
+            add(id, entry);
+        });
+    }
+
+    public void remove(Long productId) {
+        int id = docId(productId);
+        update(() -> remove(id));
+    }
+
+    public void updateRating(Long productId, double rating) {
+        int id = docId(productId);
+        update(() -> {
+            Entry e = entries.get(id);
+            if (e == null) return;
+            byStars[starBand(e.rating())].remove(id);
+            byStars[starBand(rating)].add(id);
+            entries.put(id, new Entry(e.categoryId(), e.price(), rating));
+        });
+    }
+
+    private void update(Runnable change) {
+        lock.writeLock().lock();
+        try {
+            change.run();
+            if (replay != null) replay.add(change);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public Facets filter(Long categoryId, Double minPrice, Double maxPrice, Double minRating) {
+        lock.readLock().lock();
+        try {
+            RoaringBitmap categoryMask = categoryId == null
+                    ? all
+                    : byCategory.getOrDefault(categoryId, new RoaringBitmap());
+            RoaringBitmap priceMask = priceMask(minPrice, maxPrice);
+            RoaringBitmap ratingMask = ratingMask(minRating);
+
+            RoaringBitmap result = RoaringBitmap.and(RoaringBitmap.and(categoryMask, priceMask), ratingMask);
+            List<Long> ids = new ArrayList<>(result.getCardinality());
+            result.forEach((int id) -> ids.add((long) id));
+
+            // Each facet is counted with every filter except its own, so the UI can show alternatives
+            RoaringBitmap withoutCategory = RoaringBitmap.and(priceMask, ratingMask);
+            Map<Long, Integer> categoryCounts = new TreeMap<>();
+            for (Map.Entry<Long, RoaringBitmap> e : byCategory.entrySet()) {
+                int count = RoaringBitmap.andCardinality(withoutCategory, e.getValue());
+                if (count > 0) categoryCounts.put(e.getKey(), count);
+            }
+
+            RoaringBitmap withoutPrice = RoaringBitmap.and(categoryMask, ratingMask);
+            List<PriceBand> histogram = new ArrayList<>(byPrice.length);
+            for (int b = 0; b < byPrice.length; b++) {
+                histogram.add(new PriceBand(bandMin(b), bandMax(b),
+                        RoaringBitmap.andCardinality(withoutPrice, byPrice[b])));
+            }
+
+            RoaringBitmap withoutRating = RoaringBitmap.and(categoryMask, priceMask);
+            Map<Integer, Integer> ratingCounts = new TreeMap<>();
+            int atLeast = 0;
+            for (int stars = STAR_BANDS - 1; stars >= 1; stars--) {
+                atLeast += RoaringBitmap.andCardinality(withoutRating, byStars[stars]);
+                ratingCounts.put(stars, atLeast);
+            }
+
+            return new Facets(ids, categoryCounts, histogram, ratingCounts);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private RoaringBitmap priceMask(Double min, Double max) {
+        if (min == null && max == null) return all;
+        double lo = min == null ? Double.NEGATIVE_INFINITY : min;
+        double hi = max == null ? Double.POSITIVE_INFINITY : max;
+
+        RoaringBitmap mask = new RoaringBitmap();
+        for (int b = 0; b < byPrice.length; b++) {
+            double bandLo = b == 0 ? Double.NEGATIVE_INFINITY : PRICE_BOUNDS[b - 1];
+            double bandHi = b == PRICE_BOUNDS.length ? Double.POSITIVE_INFINITY : PRICE_BOUNDS[b];
+            if (bandHi <= lo || bandLo > hi) continue;
+            if (bandLo >= lo && bandHi <= hi) {
+                mask.or(byPrice[b]);
+            } else {
+                byPrice[b].forEach((int id) -> {
+                    double price = entries.get(id).price();
+                    if (price >= lo && price <= hi) mask.add(id);
+                });
+            }
+        }
+        return mask;
+    }
+
+    private RoaringBitmap ratingMask(Double minRating) {
+        if (minRating == null) return all;
+        RoaringBitmap mask = new RoaringBitmap();
+        for (int stars = 0; stars < STAR_BANDS; stars++) {
+            if (stars + 1 <= minRating && stars < STAR_BANDS - 1) continue;
+            if (stars >= minRating) {
+                mask.or(byStars[stars]);
+            } else {
+                byStars[stars].forEach((int id) -> {
+                    if (entries.get(id).rating() >= minRating) mask.add(id);
+                });
+            }
+        }
+        return mask;
+    }
+
+    private static Entry entry(Product p) {
+        Long categoryId = p.getCategory() != null ? p.getCategory().getId() : null;
+        double price = p.getPrice() != null ? p.getPrice().doubleValue() : 0;
+        double rating = p.getAvgRating() != null ? p.getAvgRating() : 0;
+        return new Entry(categoryId, price, rating);
+    }
+
+    private void add(int id, Entry e) {
+        entries.put(id, e);
+        all.add(id);
+        if (e.categoryId() != null) {
+            byCategory.computeIfAbsent(e.categoryId(), k -> new RoaringBitmap()).add(id);
+        }
+        byPrice[priceBand(e.price())].add(id);
+        byStars[starBand(e.rating())].add(id);
+    }
+
+    private void remove(int id) {
+        Entry e = entries.remove(id);
+        if (e == null) return;
+        all.remove(id);
+        if (e.categoryId() != null) {
+            RoaringBitmap b = byCategory.get(e.categoryId());
+            if (b != null) {
+                b.remove(id);
+                if (b.isEmpty()) byCategory.remove(e.categoryId());
+            }
+        }
+        byPrice[priceBand(e.price())].remove(id);
+        byStars[starBand(e.rating())].remove(id);
+    }
+
+    private static int priceBand(double price) {
+        for (int b = 0; b < PRICE_BOUNDS.length; b++) {
+            if (price < PRICE_BOUNDS[b]) return b;
+        }
+        return PRICE_BOUNDS.length;
+    }
+
+    private static int starBand(double rating) {
+        return (int) Math.max(0, Math.min(STAR_BANDS - 1, Math.floor(rating)));
+    }
+
+    private static Double bandMin(int b) {
+        return b == 0 ? 0.0 : PRICE_BOUNDS[b - 1];
+    }
+
+    private static Double bandMax(int b) {
+        return b == PRICE_BOUNDS.length ? null : PRICE_BOUNDS[b];
+    }
+
+    private static int docId(Long productId) {
+        return Math.toIntExact(productId);
+    }
+
+    private static RoaringBitmap[] newBitmaps(int n) {
+        RoaringBitmap[] out = new RoaringBitmap[n];
+        for (int i = 0; i < n; i++) out[i] = new RoaringBitmap();
+        return out;
+    }
+}
@@ -0,0 +1,271 @@
+package com.ecommerce.ecommercebackend.service;
+
+import com.ecommerce.ecommercebackend.config.ReadRouting;
+import com.ecommerce.ecommercebackend.dto.ImportReport;
+import com.ecommerce.ecommercebackend.dto.ImportReport.RowError;
+import com.ecommerce.ecommercebackend.entity.Category;
+import com.ecommerce.ecommercebackend.repository.CategoryRepository;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.ParameterizedPreparedStatementSetter;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.sql.Types;
+import java.util.*;
+
+/**
+ * Bulk product import from a CSV or NDJSON request body.
+ * Rows are parsed one at a time and inserted in JDBC batches, one transaction per batch,
+ * so memory stays bounded by the batch size whatever the file size.
+ * Caches and indexes are refreshed once at the end, not per row.
+ */
+@Service
+public class ProductImportService {
+
+    private static final Logger log = LoggerFactory.getLogger(ProductImportService.class);
+
+    public static final int MAX_REPORTED_ERRORS = 1000;
+
+    private static final String INSERT =
+            "INSERT INTO product (name, description, price, qty, image_url, avg_rating, category_id) " +
+            "VALUES (?, ?, ?, ?, ?, 0, ?)";
+
+    // Rating aggregates for every product that has none yet, in one statement
+    private static final String SEED_STATS =
+            "INSERT INTO product_rating_stats " +
+            "(product_id, review_count, rating_sum, stars1, stars2, stars3, stars4, stars5) " +
+            "SELECT p.id, 0, 0, 0, 0, 0, 0, 0 FROM product p " +
+            "WHERE NOT EXISTS (SELECT 1 FROM product_rating_stats s WHERE s.product_id = p.id)";
+
+    public enum Format { CSV, NDJSON }
+
+    private record Row(long line, String name, String description, BigDecimal price,
+                       int qty, String imageUrl, Long categoryId) {}
+
+    private final JdbcTemplate jdbc;
+    private final TransactionTemplate tx;
+    private final CategoryRepository categoryRepo;
+    private final CategoryDictionary categories;
+    private final ProductService productService;
+    private final ObjectMapper objectMapper;
+    private final int batchSize;
+
+    public ProductImportService(JdbcTemplate jdbc,
+                                PlatformTransactionManager txManager,
+                                CategoryRepository categoryRepo,
+                                CategoryDictionary categories,
+                                ProductService productService,
+                                ObjectMapper objectMapper,
+                                @Value("${products.import.batch-size:1000}") int batchSize) {
+        this.jdbc = jdbc;
+        this.tx = new TransactionTemplate(txManager);
+        this.categoryRepo = categoryRepo;
+        this.categories = categories;
+        this.productService = productService;
+        this.objectMapper = objectMapper;
+        this.batchSize = batchSize;
+    }
+
+    // Per-import state: counters and the bounded error list
+    private final class Run {
+        final boolean createCategories;
+        final List<Row> batch = new ArrayList<>(batchSize);
+        final List<RowError> errors = new ArrayList<>();
+        long read;
+        long inserted;
+        long failed;
+        int categoriesCreated;
+
+        Run(boolean createCategories) {
+            this.createCategories = createCategories;
+        }
+
+        void accept(Row row) {
+            batch.add(row);
+            if (batch.size() >= batchSize) flush();
+        }
+
+        void fail(long line, String message) {
+            failed++;
+            if (errors.size() < MAX_REPORTED_ERRORS) errors.add(new RowError(line, message));
+        }
+
+        Long category(String name) {
+            if (name == null || name.isBlank()) return null;
+            Optional<Long> known = categories.idOf(name);
+            if (known.isPresent()) return known.get();
+            if (!createCategories) throw new IllegalArgumentException("Unknown category: " + name.trim());
+            Category c = new Category();
+            c.setName(name.trim());
+            try {
+                c = categoryRepo.save(c);
+                categoriesCreated++;
+            } catch (DataIntegrityViolationException e) {
+                // Created concurrently under the same normalized name; only the primary is sure to have it yet
+                c = ReadRouting.onPrimary(() -> categoryRepo.findByNormalizedName(Category.normalize(name)))
+                        .orElseThrow(() -> e);
+            }
+            categories.register(c);
+            return c.getId();
+        }
+
+        void flush() {
+            if (batch.isEmpty()) return;
+            try {
+                tx.executeWithoutResult(s -> jdbc.batchUpdate(INSERT, batch, batch.size(), SETTER));
+                inserted += batch.size();
+            } catch (DataAccessException e) {
+                // One bad row fails the whole batch: redo it row by row to find which
+                for (Row row : batch) {
+                    try {
+                        tx.executeWithoutResult(s -> jdbc.batchUpdate(INSERT, List.of(row), 1, SETTER));
+                        inserted++;
+                    } catch (DataAccessException rowError) {
+                        fail(row.line(), rootMessage(rowError));
+                    }
+                }
+            }
+            batch.clear();
+        }
+    }
+
+    private static final ParameterizedPreparedStatementSetter<Row> SETTER = (ps, r) -> {
+        ps.setString(1, r.name());
+        ps.setString(2, r.description());
+        ps.setBigDecimal(3, r.price());
+        ps.setInt(4, r.qty());
+        ps.setString(5, r.imageUrl());
+        if (r.categoryId() == null) ps.setNull(6, Types.BIGINT);
+        else ps.setLong(6, r.categoryId());
+    };
+
+    public ImportReport importProducts(InputStream body, Format format, boolean createCategories) throws IOException {
+        long start = System.nanoTime();
+        Run run = new Run(createCategories);
+        BufferedReader reader = new BufferedReader(new InputStreamReader(body, StandardCharsets.UTF_8), 64 * 1024);
+
+        if (format == Format.CSV) readCsv(reader, run);
+        else readNdjson(reader, run);
+        run.flush();
+
+        if (run.inserted > 0 || run.categoriesCreated > 0) {
+            jdbc.update(SEED_STATS);
+            productService.catalogReloaded();
+        }
+
+        long elapsedMs = Math.max(1, (System.nanoTime() - start) / 1_000_000);
+        double rate = run.read * 1000.0 / elapsedMs;
+        log.info("📦 Product import: {} rows read, {} inserted, {} failed, {} categories created in {} ms ({} rows/s)",
+                run.read, run.inserted, run.failed, run.categoriesCreated, elapsedMs, Math.round(rate));
+        return new ImportReport(run.read, run.inserted, run.failed, run.categoriesCreated, elapsedMs, rate, run.errors);
+    }
+
+    private void readCsv(BufferedReader reader, Run run) throws IOException {
+        CsvReader csv = new CsvReader(reader);
+        List<String> header = csv.next();
+        if (header == null) return;
+
+        Map<String, Integer> col = new HashMap<>();
+        for (int i = 0; i < header.size(); i++) {
+            col.put(header.get(i).trim().toLowerCase(Locale.ROOT).replace("_", ""), i);
+        }
+        if (!col.containsKey("name") || !col.containsKey("price")) {
+            throw new IllegalArgumentException("CSV header must contain at least name and price");
+        }
+
+        List<String> fields;
+        while ((fields = csv.next()) != null) {
+            run.read++;
+            long line = csv.recordLine();
+            List<String> f = fields;
+            try {
+                run.accept(row(line, run,
+                        cell(f, col.get("name")),
+                        cell(f, col.get("description")),
+                        cell(f, col.get("price")),
+                        cell(f, col.get("qty")),
+                        cell(f, col.get("imageurl")),
+                        cell(f, col.get("category"))));
+            } catch (IllegalArgumentException e) {
+                run.fail(line, e.getMessage());
+            }
+        }
+    }
+
+    private void readNdjson(BufferedReader reader, Run run) throws IOException {
+        String text;
+        long line = 0;
+        while ((text = reader.readLine()) != null) {
+            line++;
+            if (text.isBlank()) continue;
+            run.read++;
+            try {
+                JsonNode n = objectMapper.readTree(text);
+                if (!n.isObject()) throw new IllegalArgumentException("Expected a JSON object");
+                run.accept(row(line, run,
+                        text(n, "name"), text(n, "description"), text(n, "price"),
+                        text(n, "qty"), text(n, "imageUrl"), text(n, "category")));
+            } catch (JsonProcessingException e) {
+                run.fail(line, "Malformed JSON: " + e.getOriginalMessage());
+            } catch (IllegalArgumentException e) {
+                run.fail(line, e.getMessage());
+            }
+        }
+    }
+
+    private static Row row(long line, Run run, String name, String description, String price,
+                           String qty, String imageUrl, String category) {
+        if (name == null || name.isBlank()) throw new IllegalArgumentException("name is required");
+        BigDecimal p;
+        try {
+            p = new BigDecimal(price == null ? "" : price.trim());
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("price is not a number: " + price);
+        }
+        if (p.signum() < 0) throw new IllegalArgumentException("price must not be negative");
+        int q = 0;
+        if (qty != null && !qty.isBlank()) {
+            try {
+                q = Integer.parseInt(qty.trim());
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException("qty is not an integer: " + qty);
+            }
+            if (q < 0) throw new IllegalArgumentException("qty must not be negative");
+        }
+        return new Row(line, name.trim(), blankToNull(description), p, q, blankToNull(imageUrl), run.category(category));
+    }
+
+    private static String cell(List<String> fields, Integer index) {
+        return index == null || index >= fields.size() ? null : fields.get(index);
+    }
+
+    private static String text(JsonNode n, String field) {
+        JsonNode v = n.get(field);
+        return v == null || v.isNull() ? null : v.asText();
+    }
+
+    private static String blankToNull(String s) {
+        return s == null || s.isBlank() ? null : s.trim();
+    }
+
+    private static String rootMessage(Throwable t) {
+        Throwable root = t;
+        while (root.getCause() != null) root = root.getCause();
+        return root.getMessage();
+    }
+}
@@ -0,0 +1,314 @@
+package com.ecommerce.ecommercebackend.service;
+
+import com.ecommerce.ecommercebackend.config.ReadRouting;
+import com.ecommerce.ecommercebackend.entity.Product;
+import com.ecommerce.ecommercebackend.repository.ProductRepository;
+import lombok.RequiredArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+import java.util.*;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * In-memory inverted index over product name, description and category name.
+ * Supports prefix matches and single-edit typos, ranked by field weight and term rarity.
+ */
+@Service
+@RequiredArgsConstructor
+public class ProductSearchIndex {
+
+    private static final Logger log = LoggerFactory.getLogger(ProductSearchIndex.class);
+
+    private static final float NAME_WEIGHT = 3f;
+    private static final float CATEGORY_WEIGHT = 2f;
+    private static final float DESCRIPTION_WEIGHT = 1f;
+
+    private static final float PREFIX_FACTOR = 0.7f;
+    private static final float FUZZY_FACTOR = 0.5f;
+
+    private static final int MIN_PREFIX_LENGTH = 2;
+    private static final int MIN_FUZZY_LENGTH = 4;
+    private static final int MAX_PREFIX_EXPANSIONS = 64;
+
+    private final ProductRepository productRepo;
+    private final CategoryDictionary categories;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final ReentrantLock rebuildLock = new ReentrantLock();
+
+    // term -> (productId -> field weight)
+    private final TreeMap<String, Map<Long, Float>> postings = new TreeMap<>();
+    // term or one-char deletion of a term -> terms (symmetric-delete typo lookup)
+    private final Map<String, Set<String>> variants = new HashMap<>();
+    // productId -> its terms, so updates and deletes can unlink old postings
+    private final Map<Long, Map<String, Float>> docs = new HashMap<>();
+    // Changes made while rebuild() loads its snapshot, replayed over it in order; null when no rebuild runs
+    private List<Runnable> replay;
+
+    private volatile boolean ready;
+
+    // ✅ Build the full index once the app is up. Searches keep using the old index while products load;
+    // index() and remove() calls that land meanwhile are replayed over the snapshot, which may predate them.
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        // One rebuild at a time: a second one would swap the replay list out from under the first
+        rebuildLock.lock();
+        try {
+            load();
+        } finally {
+            rebuildLock.unlock();
+        }
+    }
+
+    private void load() {
+        long start = System.currentTimeMillis();
+        lock.writeLock().lock();
+        try {
+            replay = new ArrayList<>();
+        } finally {
+            lock.writeLock().unlock();
+        }
+        List<Product> all = null;
+        try {
+            all = ReadRouting.onPrimary(productRepo::findAll);
+        } finally {
+            lock.writeLock().lock();
+            try {
+                if (all != null) {
+                    postings.clear();
+                    variants.clear();
+                    docs.clear();
+                    for (Product p : all) {
+                        addDoc(p.getId(), terms(p));
+                    }
+                    replay.forEach(Runnable::run);
+                    ready = true;
+                }
+                replay = null;
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+        log.info("🔎 Search index built: {} products, {} terms in {} ms",
+                all.size(), postings.size(), System.currentTimeMillis() - start);
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    // ✅ Add or replace a single product
+    public void index(Product p) {
+        if (p == null || p.getId() == null) return;
+        Long id = p.getId();
+        Map<String, Float> terms = terms(p);
+        update(() -> {
+            removeDoc(id);
+            addDoc(id, terms);
+        });
+    }
+
+    public void remove(Long productId) {
+        update(() -> removeDoc(productId));
+    }
+
+    private void update(Runnable change) {
+        lock.writeLock().lock();
+        try {
+            change.run();
+            if (replay != null) replay.add(change);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // ✅ Returns product ids ordered by relevance; every query token must match
+    public List<Long> search(String query, int limit) {
+        List<String> tokens = tokenize(query);
+        if (tokens.isEmpty() || limit <= 0) return List.of();
+
+        lock.readLock().lock();
+        try {
+            int n = Math.max(docs.size(), 1);
+            Map<Long, Float> scores = null;
+            for (String token : tokens) {
+                Map<Long, Float> matches = match(token, n);
+                if (matches.isEmpty()) return List.of();
+                if (scores == null) {
+                    scores = matches;
+                } else {
+                    Map<Long, Float> next = new HashMap<>();
+                    for (Map.Entry<Long, Float> e : scores.entrySet()) {
+                        Float s = matches.get(e.getKey());
+                        if (s != null) next.put(e.getKey(), e.getValue() + s);
+                    }
+                    if (next.isEmpty()) return List.of();
+                    scores = next;
+                }
+            }
+
+            return scores.entrySet().stream()
+                    .sorted(Map.Entry.<Long, Float>comparingByValue().reversed()
+                            .thenComparing(Map.Entry.<Long, Float>comparingByKey()))
+                    .limit(limit)
+                    .map(Map.Entry::getKey)
+                    .toList();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // Best score per product for one query token: exact > prefix > one typo
+    private Map<Long, Float> match(String token, int n) {
+        Map<Long, Float> out = new HashMap<>();
+
+        Map<Long, Float> exact = postings.get(token);
+        if (exact != null) collect(out, exact, idf(exact.size(), n));
+
+        if (token.length() >= MIN_PREFIX_LENGTH) {
+            int expanded = 0;
+            for (Map.Entry<String, Map<Long, Float>> e
+                    : postings.subMap(token, false, token + Character.MAX_VALUE, false).entrySet()) {
+                if (++expanded > MAX_PREFIX_EXPANSIONS) break;
+                collect(out, e.getValue(), idf(e.getValue().size(), n) * PREFIX_FACTOR);
+            }
+        }
+
+        if (out.isEmpty() && token.length() >= MIN_FUZZY_LENGTH) {
+            Set<String> candidates = new HashSet<>();
+            for (String v : deletes(token)) {
+                Set<String> terms = variants.get(v);
+                if (terms != null) candidates.addAll(terms);
+            }
+            for (String term : candidates) {
+                if (withinOneEdit(token, term)) {
+                    Map<Long, Float> docsForTerm = postings.get(term);
+                    collect(out, docsForTerm, idf(docsForTerm.size(), n) * FUZZY_FACTOR);
+                }
+            }
+        }
+        return out;
+    }
+
+    private static void collect(Map<Long, Float> out, Map<Long, Float> posting, float factor) {
+        for (Map.Entry<Long, Float> e : posting.entrySet()) {
+            out.merge(e.getKey(), e.getValue() * factor, Math::max);
+        }
+    }
+
+    private static float idf(int df, int n) {
+        return (float) Math.log(1.0 + (double) n / df);
+    }
+
+    private Map<String, Float> terms(Product p) {
+        Map<String, Float> terms = new HashMap<>();
+        addField(terms, p.getName(), NAME_WEIGHT);
+        addField(terms, p.getDescription(), DESCRIPTION_WEIGHT);
+        if (p.getCategory() != null) addField(terms, categoryName(p), CATEGORY_WEIGHT);
+        return terms;
+    }
+
+    private void addDoc(Long productId, Map<String, Float> terms) {
+        if (terms.isEmpty()) return;
+
+        docs.put(productId, terms);
+        for (Map.Entry<String, Float> e : terms.entrySet()) {
+            Map<Long, Float> posting = postings.get(e.getKey());
+            if (posting == null) {
+                posting = new HashMap<>();
+                postings.put(e.getKey(), posting);
+                linkVariants(e.getKey());
+            }
+            posting.put(productId, e.getValue());
+        }
+    }
+
+    // Dictionary first: request bodies often carry a category with only its id set
+    private String categoryName(Product p) {
+        String name = categories.nameOf(p.getCategory().getId());
+        return name != null ? name : p.getCategory().getName();
+    }
+
+    private void removeDoc(Long productId) {
+        Map<String, Float> terms = docs.remove(productId);
+        if (terms == null) return;
+        for (String term : terms.keySet()) {
+            Map<Long, Float> posting = postings.get(term);
+            if (posting == null) continue;
+            posting.remove(productId);
+            if (posting.isEmpty()) {
+                postings.remove(term);
+                unlinkVariants(term);
+            }
+        }
+    }
+
+    private static void addField(Map<String, Float> terms, String text, float weight) {
+        // A term that shows up in several fields keeps the sum of their weights
+        for (String t : new HashSet<>(tokenize(text))) {
+            terms.merge(t, weight, Float::sum);
+        }
+    }
+
+    private void linkVariants(String term) {
+        if (term.length() < MIN_FUZZY_LENGTH) return;
+        for (String v : deletes(term)) {
+            variants.computeIfAbsent(v, k -> new HashSet<>()).add(term);
+        }
+    }
+
+    private void unlinkVariants(String term) {
+        if (term.length() < MIN_FUZZY_LENGTH) return;
+        for (String v : deletes(term)) {
+            Set<String> terms = variants.get(v);
+            if (terms == null) continue;
+            terms.remove(term);
+            if (terms.isEmpty()) variants.remove(v);
+        }
+    }
+
+    // The word itself plus every string made by dropping one character
+    private static Set<String> deletes(String term) {
+        Set<String> out = new HashSet<>(term.length() + 1);
+        out.add(term);
+        for (int i = 0; i < term.length(); i++) {
+            out.add(term.substring(0, i) + term.substring(i + 1));
+        }
+        return out;
+    }
+
+    // Optimal string alignment distance <= 1 (insert, delete, substitute or swap two neighbours)
+    static boolean withinOneEdit(String a, String b) {
+        if (a.equals(b)) return true;
+        int la = a.length(), lb = b.length();
+        if (Math.abs(la - lb) > 1) return false;
+
+        int i = 0;
+        while (i < Math.min(la, lb) && a.charAt(i) == b.charAt(i)) i++;
+
+        if (la == lb) {
+            if (a.substring(i + 1).equals(b.substring(i + 1))) return true;
+            return i + 1 < la
+                    && a.charAt(i) == b.charAt(i + 1)
+                    && a.charAt(i + 1) == b.charAt(i)
+                    && a.substring(i + 2).equals(b.substring(i + 2));
+        }
+        return la > lb
+                ? a.substring(i + 1).equals(b.substring(i))
+                : a.substring(i).equals(b.substring(i + 1));
+    }
+
+    static List<String> tokenize(String text) {
+        if (text == null || text.isBlank()) return List.of();
+        List<String> out = new ArrayList<>();
+        for (String t : text.toLowerCase(Locale.ROOT).split("[^\\p{L}\\p{N}]+")) {
+            if (!t.isEmpty()) out.add(t);
+        }
+        return out;
+    }
+}
@@ -0,0 +1,163 @@
+package com.ecommerce.ecommercebackend.service;
+
+import com.ecommerce.ecommercebackend.dto.ProductFilterResponse;
+import com.ecommerce.ecommercebackend.entity.Category;
+import com.ecommerce.ecommercebackend.entity.Product;
+import com.ecommerce.ecommercebackend.entity.ProductRatingStats;
+import com.ecommerce.ecommercebackend.repository.CategoryRepository;
+import com.ecommerce.ecommercebackend.repository.ProductRatingStatsRepository;
+import com.ecommerce.ecommercebackend.repository.ProductRepository;
+import io.micrometer.core.annotation.Timed;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+// ✅ Single write path for products, keeps the catalog snapshot, search and facet indexes in sync
+@Timed(value = "service.calls", histogram = true)
+@Service
+@RequiredArgsConstructor
+public class ProductService {
+
+    private final ProductRepository productRepo;
+    private final CategoryRepository categoryRepo;
+    private final ProductRatingStatsRepository statsRepo;
+    private final CatalogSnapshotService catalog;
+    private final ProductSearchIndex searchIndex;
+    private final ProductFacetIndex facetIndex;
+    private final CategoryDictionary categories;
+
+    public Product create(Product p) {
+        p.setCategory(resolveCategory(p.getCategory()));
+        p.setAvgRating(0.0); // owned by the rating aggregates, see ReviewService
+        Product saved = productRepo.save(p);
+        statsRepo.save(new ProductRatingStats(saved.getId()));
+        catalog.bump();
+        searchIndex.index(saved);
+        facetIndex.index(saved);
+        categories.productMoved(null, categoryId(saved));
+        return saved;
+    }
+
+    public Optional<Product> update(Long id, Product updated) {
+        return productRepo.findById(id)
+                .map(existing -> {
+                    Long oldCategoryId = categoryId(existing);
+                    existing.setName(updated.getName());
+                    existing.setDescription(updated.getDescription());
+                    existing.setPrice(updated.getPrice());
+                    existing.setQty(updated.getQty());
+                    existing.setImageUrl(updated.getImageUrl());
+                    existing.setCategory(resolveCategory(updated.getCategory()));
+                    Product saved = productRepo.save(existing);
+                    catalog.bump();
+                    searchIndex.index(saved);
+                    facetIndex.index(saved);
+                    categories.productMoved(oldCategoryId, categoryId(saved));
+                    return saved;
+                });
+    }
+
+    public boolean delete(Long id) {
+        Optional<Product> existing = productRepo.findById(id);
+        if (existing.isEmpty()) {
+            return false;
+        }
+        productRepo.delete(existing.get());
+        statsRepo.deleteById(id);
+        catalog.bump();
+        searchIndex.remove(id);
+        facetIndex.remove(id);
+        categories.productMoved(categoryId(existing.get()), null);
+        return true;
+    }
+
+    // ✅ Category renamed → products embedding it need re-serializing and re-indexing
+    public void categoryChanged(Long categoryId) {
+        catalog.bump();
+        productRepo.findByCategoryId(categoryId).forEach(searchIndex::index);
+    }
+
+    // ✅ Products were written around the JPA layer (bulk import): one full refresh instead of one per row
+    public void catalogReloaded() {
+        catalog.bump();
+        categories.rebuild();
+        searchIndex.rebuild();
+        facetIndex.rebuild();
+    }
+
+    // ✅ avgRating moved after a review write, refresh once the review transaction commits
+    public void ratingChanged(Long productId, double avg) {
+        afterCommit(() -> {
+            catalog.bump();
+            facetIndex.updateRating(productId, avg);
+        });
+    }
+
+    public void ratingsRebuilt() {
+        afterCommit(() -> {
+            catalog.bump();
+            facetIndex.rebuild();
+        });
+    }
+
+    // ✅ Ranked search, falls back to the LIKE query until the index is built
+    @Transactional(readOnly = true)
+    public List<Product> search(String keyword, int limit) {
+        if (!searchIndex.isReady()) {
+            return productRepo.searchProducts(keyword);
+        }
+        return load(searchIndex.search(keyword, limit));
+    }
+
+    // ✅ Bitmap filter + facet counts, falls back to the JPQL filter until the index is built
+    @Transactional(readOnly = true)
+    public ProductFilterResponse filter(Long categoryId, Double minPrice, Double maxPrice, Double minRating) {
+        if (!facetIndex.isReady()) {
+            return new ProductFilterResponse(
+                    productRepo.filterProducts(categoryId, minPrice, maxPrice, minRating),
+                    Map.of(), List.of(), Map.of());
+        }
+        ProductFacetIndex.Facets f = facetIndex.filter(categoryId, minPrice, maxPrice, minRating);
+        return new ProductFilterResponse(load(f.ids()), f.categoryCounts(), f.priceHistogram(), f.ratingCounts());
+    }
+
+    // Fetch by primary key and keep the caller's order
+    private List<Product> load(List<Long> ids) {
+        if (ids.isEmpty()) return List.of();
+        Map<Long, Product> byId = productRepo.findAllById(ids).stream()
+                .collect(Collectors.toMap(Product::getId, Function.identity()));
+        return ids.stream().map(byId::get).filter(p -> p != null).toList();
+    }
+
+    private static void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+
+    private static Long categoryId(Product p) {
+        return p.getCategory() != null ? p.getCategory().getId() : null;
+    }
+
+    // Request bodies usually carry only {"id": ..}, load the real category so its name is indexed
+    private Category resolveCategory(Category c) {
+        if (c == null || c.getId() == null) return null;
+        return categoryRepo.findById(c.getId())
+                .orElseThrow(() -> new RuntimeException("Category not found"));
+    }
+}
@@ -1,27 +1,201 @@
 package com.ecommerce.ecommercebackend.service;
 
+import com.ecommerce.ecommercebackend.dto.RatingSummary;
 import com.ecommerce.ecommercebackend.entity.*;
 import com.ecommerce.ecommercebackend.repository.*;
 import lombok.RequiredArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
-import java.util.List;
+import java.util.*;
 
 @Service
 @RequiredArgsConstructor
 public class ReviewService {
+
+    private static final Logger log = LoggerFactory.getLogger(ReviewService.class);
+
+    private static final String SET_AVG_RATING = "UPDATE product SET avg_rating = ? WHERE id = ?";
+
     private final ReviewRepository rr;
     private final ProductRepository pr;
+    private final ProductRatingStatsRepository statsRepo;
+    private final ProductService productService;
+    private final JdbcTemplate jdbc;
+    private final EntityCacheEvictor caches;
 
-    public Review add(Review r) {
+    @Transactional
+    public Review add(User user, Product product, int rating, String comment) {
+        Review r = new Review();
+        r.setUser(user);
+        r.setProduct(product);
+        r.setRating(rating);
+        r.setComment(comment);
         Review saved = rr.save(r);
-        List<Review> all = rr.findByProduct(r.getProduct());
-        double avg = all.stream().mapToInt(Review::getRating).average().orElse(0);
-        var p = r.getProduct();
-        p.setAvgRating(avg);
-        pr.save(p);
+        applyDelta(product.getId(), null, rating);
+        return saved;
+    }
+
+    @Transactional
+    public Review update(Review existing, Integer rating, String comment) {
+        Integer oldRating = existing.getRating();
+        if (rating != null) existing.setRating(rating);
+        if (comment != null && !comment.isBlank()) {
+            existing.setComment(comment);
+        }
+        Review saved = rr.save(existing);
+        if (rating != null && !rating.equals(oldRating)) {
+            applyDelta(existing.getProduct().getId(), oldRating, rating);
+        }
         return saved;
     }
 
+    @Transactional
+    public void delete(Review existing) {
+        Long productId = existing.getProduct().getId();
+        Integer oldRating = existing.getRating();
+        rr.delete(existing);
+        applyDelta(productId, oldRating, null);
+    }
+
+    @Transactional(readOnly = true)
     public List<Review> list(Product p) { return rr.findByProduct(p); }
+
+    @Transactional(readOnly = true)
+    public RatingSummary summary(Long productId) {
+        ProductRatingStats s = statsRepo.findById(productId).orElseGet(() -> new ProductRatingStats(productId));
+        Map<Integer, Long> histogram = new LinkedHashMap<>();
+        histogram.put(1, s.getStars1());
+        histogram.put(2, s.getStars2());
+        histogram.put(3, s.getStars3());
+        histogram.put(4, s.getStars4());
+        histogram.put(5, s.getStars5());
+        return new RatingSummary(productId, s.getReviewCount(), s.average(), histogram);
+    }
+
+    // ✅ Recompute every product's aggregates and avg_rating from the reviews table (nightly, and at boot if rows are missing)
+    @Transactional
+    @Scheduled(cron = "${ratings.reconcile-cron:0 30 3 * * *}")
+    public int rebuildStats() {
+        long start = System.currentTimeMillis();
+        Map<Long, ProductRatingStats> fresh = new HashMap<>();
+        Map<Long, Double> storedAvg = new HashMap<>();
+        for (Object[] row : pr.findAllAvgRatings()) {
+            Long id = (Long) row[0];
+            fresh.put(id, new ProductRatingStats(id));
+            storedAvg.put(id, (Double) row[1]);
+        }
+        for (Object[] row : rr.countByProductAndRating()) {
+            ProductRatingStats s = fresh.get((Long) row[0]);
+            int stars = ((Number) row[1]).intValue();
+            long count = ((Number) row[2]).longValue();
+            if (s == null || stars < 1 || stars > 5) continue;
+            s.setReviewCount(s.getReviewCount() + count);
+            s.setRatingSum(s.getRatingSum() + stars * count);
+            addStars(s, stars, count);
+        }
+
+        Map<Long, ProductRatingStats> current = new HashMap<>();
+        statsRepo.findAll().forEach(s -> current.put(s.getProductId(), s));
+
+        int drifted = 0;
+        Map<Long, Double> averages = new HashMap<>();
+        for (ProductRatingStats s : fresh.values()) {
+            ProductRatingStats old = current.get(s.getProductId());
+            boolean statsDrifted = old == null || !sameCounts(old, s);
+            // avg_rating can drift on its own too (product edits, imports), whatever the stats row says
+            boolean avgDrifted = !Objects.equals(storedAvg.get(s.getProductId()), s.average());
+            if (!statsDrifted && !avgDrifted) continue;
+            if (statsDrifted) statsRepo.save(s);
+            if (avgDrifted) averages.put(s.getProductId(), s.average());
+            drifted++;
+        }
+        saveAverages(averages);
+        if (drifted > 0) productService.ratingsRebuilt();
+        log.info("⭐ Rating stats reconciled: {} products, {} corrected in {} ms",
+                fresh.size(), drifted, System.currentTimeMillis() - start);
+        return drifted;
+    }
+
+    @Transactional
+    @EventListener(ApplicationReadyEvent.class)
+    public void ensureStats() {
+        if (statsRepo.count() < pr.count()) {
+            rebuildStats();
+        }
+    }
+
+    // oldRating is null on add, newRating is null on delete; ratings outside 1-5 are not counted
+    private void applyDelta(Long productId, Integer oldRating, Integer newRating) {
+        long[] stars = new long[6];
+        long count = 0;
+        long sum = 0;
+        if (isStar(oldRating)) { stars[oldRating]--; count--; sum -= oldRating; }
+        if (isStar(newRating)) { stars[newRating]++; count++; sum += newRating; }
+
+        int updated = statsRepo.applyDelta(productId, count, sum,
+                stars[1], stars[2], stars[3], stars[4], stars[5]);
+        // Product predates the stats table: seed its row from its reviews, this change included.
+        // If a concurrent writer seeded it first, it couldn't see this change, so apply the delta after all.
+        if (updated == 0 && !seedStats(productId)) {
+            statsRepo.applyDelta(productId, count, sum, stars[1], stars[2], stars[3], stars[4], stars[5]);
+        }
+
+        double avg = statsRepo.findById(productId).map(ProductRatingStats::average).orElse(0.0);
+        saveAverages(Map.of(productId, avg));
+        productService.ratingChanged(productId, avg);
+    }
+
+    private boolean seedStats(Long productId) {
+        ProductRatingStats s = new ProductRatingStats(productId);
+        for (Object[] row : rr.countByRating(productId)) {
+            int stars = ((Number) row[0]).intValue();
+            long count = ((Number) row[1]).longValue();
+            if (stars < 1 || stars > 5) continue;
+            s.setReviewCount(s.getReviewCount() + count);
+            s.setRatingSum(s.getRatingSum() + stars * count);
+            addStars(s, stars, count);
+        }
+        return statsRepo.insertIfAbsent(productId, s.getReviewCount(), s.getRatingSum(),
+                s.getStars1(), s.getStars2(), s.getStars3(), s.getStars4(), s.getStars5()) > 0;
+    }
+
+    // ✅ JDBC and evict just these rows: a JPQL bulk update would empty the whole product cache region
+    private void saveAverages(Map<Long, Double> avgByProduct) {
+        if (avgByProduct.isEmpty()) return;
+        List<Object[]> args = new ArrayList<>(avgByProduct.size());
+        avgByProduct.forEach((id, avg) -> args.add(new Object[]{avg, id}));
+        jdbc.batchUpdate(SET_AVG_RATING, args);
+        caches.productsChanged(avgByProduct.keySet());
+    }
+
+    private static boolean isStar(Integer rating) {
+        return rating != null && rating >= 1 && rating <= 5;
+    }
+
+    private static void addStars(ProductRatingStats s, int stars, long count) {
+        switch (stars) {
+            case 1 -> s.setStars1(s.getStars1() + count);
+            case 2 -> s.setStars2(s.getStars2() + count);
+            case 3 -> s.setStars3(s.getStars3() + count);
+            case 4 -> s.setStars4(s.getStars4() + count);
+            default -> s.setStars5(s.getStars5() + count);
+        }
+    }
+
+    private static boolean sameCounts(ProductRatingStats a, ProductRatingStats b) {
+        return Objects.equals(a.getReviewCount(), b.getReviewCount())
+                && Objects.equals(a.getRatingSum(), b.getRatingSum())
+                && Objects.equals(a.getStars1(), b.getStars1())
+                && Objects.equals(a.getStars2(), b.getStars2())
+                && Objects.equals(a.getStars3(), b.getStars3())
+                && Objects.equals(a.getStars4(), b.getStars4())
+                && Objects.equals(a.getStars5(), b.getStars5());
+    }
 }
@@ -0,0 +1,66 @@
+package com.ecommerce.ecommercebackend.service;
+
+import com.ecommerce.ecommercebackend.exception.InsufficientStockException;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.*;
+
+/**
+ * All-or-nothing stock reservation for a cart.
+ * Each line is a conditional decrement (qty >= n), so stock can never go negative;
+ * any short line throws and the caller's transaction rolls back the lines already taken.
+ */
+@Service
+@RequiredArgsConstructor
+public class StockReservationService {
+
+    private static final String DECREMENT =
+            "UPDATE product SET qty = qty - ? WHERE id = ? AND qty >= ?";
+
+    private final JdbcTemplate jdbc;
+    private final EntityCacheEvictor caches;
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void reserve(Map<Long, Integer> qtyByProduct) {
+        if (qtyByProduct.isEmpty()) return;
+
+        // Ascending product id = same row lock order for every checkout, so two carts can't deadlock
+        List<Map.Entry<Long, Integer>> lines = new ArrayList<>(new TreeMap<>(qtyByProduct).entrySet());
+
+        int[] updated = jdbc.batchUpdate(DECREMENT, new BatchPreparedStatementSetter() {
+            @Override
+            public void setValues(PreparedStatement ps, int i) throws SQLException {
+                Map.Entry<Long, Integer> line = lines.get(i);
+                ps.setInt(1, line.getValue());
+                ps.setLong(2, line.getKey());
+                ps.setInt(3, line.getValue());
+            }
+
+            @Override
+            public int getBatchSize() {
+                return lines.size();
+            }
+        });
+
+        List<Long> shortLines = new ArrayList<>();
+        for (int i = 0; i < updated.length; i++) {
+            if (updated[i] == Statement.SUCCESS_NO_INFO) {
+                throw new IllegalStateException("JDBC driver did not report update counts for stock reservation");
+            }
+            if (updated[i] == 0) shortLines.add(lines.get(i).getKey());
+        }
+        if (!shortLines.isEmpty()) {
+            throw new InsufficientStockException(shortLines);
+        }
+        // The decrement bypassed Hibernate: drop the cached rows once it commits
+        caches.productsChanged(qtyByProduct.keySet());
+    }
+}
@@ -0,0 +1,62 @@
+package com.ecommerce.ecommercebackend.service;
+
+import com.ecommerce.ecommercebackend.dto.AuthUser;
+import com.ecommerce.ecommercebackend.entity.User;
+import com.ecommerce.ecommercebackend.repository.UserRepository;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+
+/**
+ * username -> (id, role) for authenticated requests, so handlers don't run findByUsername per call.
+ * Filled at login, bounded and TTL-evicted, invalidated whenever a user row changes.
+ */
+@Service
+public class UserCache {
+
+    private final UserRepository userRepo;
+    private final Cache<String, AuthUser> cache;
+
+    public UserCache(UserRepository userRepo,
+                     @Value("${users.cache.max-size:10000}") long maxSize,
+                     @Value("${users.cache.ttl:30m}") Duration ttl) {
+        this.userRepo = userRepo;
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+    }
+
+    public AuthUser get(String username) {
+        AuthUser u = cache.get(username, name -> userRepo.findByUsername(name).map(UserCache::toAuthUser).orElse(null));
+        if (u == null) {
+            throw new RuntimeException("User not found: " + username);
+        }
+        return u;
+    }
+
+    public void put(User u) {
+        cache.put(u.getUsername(), toAuthUser(u));
+    }
+
+    public void invalidate(String username) {
+        cache.invalidate(username);
+    }
+
+    // ✅ Unloaded reference for building associations (no SELECT)
+    public User reference(AuthUser u) {
+        return userRepo.getReferenceById(u.getId());
+    }
+
+    public Cache<String, AuthUser> nativeCache() {
+        return cache;
+    }
+
+    private static AuthUser toAuthUser(User u) {
+        return new AuthUser(u.getId(), u.getUsername(), u.getRole());
+    }
+}
@@ -0,0 +1,87 @@
+-- H2 twin of db/migration/mysql/V1__baseline.sql, for the test profile and the startup benchmark.
+-- Same tables and columns in every version; only identity columns, sequences, date-time types
+-- and multi-table UPDATE/DELETE are spelled the H2 way.
+
+CREATE TABLE users (
+    id       BIGINT       GENERATED BY DEFAULT AS IDENTITY,
+    username VARCHAR(255) NOT NULL,
+    password VARCHAR(255) NOT NULL,
+    email    VARCHAR(255),
+    address  VARCHAR(255),
+    role     VARCHAR(255),
+    PRIMARY KEY (id),
+    CONSTRAINT uk_users_username UNIQUE (username),
+    CONSTRAINT uk_users_email UNIQUE (email)
+);
+
+CREATE TABLE category (
+    id   BIGINT       GENERATED BY DEFAULT AS IDENTITY,
+    name VARCHAR(255),
+    PRIMARY KEY (id),
+    CONSTRAINT uk_category_name UNIQUE (name)
+);
+
+CREATE TABLE product (
+    id          BIGINT         GENERATED BY DEFAULT AS IDENTITY,
+    name        VARCHAR(255)   NOT NULL,
+    description VARCHAR(1000),
+    price       DECIMAL(38, 2),
+    qty         INTEGER,
+    image_url   VARCHAR(500),
+    avg_rating  DOUBLE PRECISION,
+    category_id BIGINT,
+    PRIMARY KEY (id),
+    CONSTRAINT fk_product_category FOREIGN KEY (category_id) REFERENCES category (id)
+);
+
+CREATE TABLE cart_item (
+    id         BIGINT GENERATED BY DEFAULT AS IDENTITY,
+    user_id    BIGINT NOT NULL,
+    product_id BIGINT NOT NULL,
+    qty        INTEGER,
+    PRIMARY KEY (id),
+    CONSTRAINT fk_cart_item_user FOREIGN KEY (user_id) REFERENCES users (id),
+    CONSTRAINT fk_cart_item_product FOREIGN KEY (product_id) REFERENCES product (id)
+);
+
+CREATE TABLE wishlist (
+    id         BIGINT GENERATED BY DEFAULT AS IDENTITY,
+    user_id    BIGINT,
+    product_id BIGINT,
+    PRIMARY KEY (id),
+    CONSTRAINT fk_wishlist_user FOREIGN KEY (user_id) REFERENCES users (id),
+    CONSTRAINT fk_wishlist_product FOREIGN KEY (product_id) REFERENCES product (id)
+);
+
+CREATE TABLE review (
+    id         BIGINT        GENERATED BY DEFAULT AS IDENTITY,
+    user_id    BIGINT,
+    product_id BIGINT,
+    rating     INTEGER,
+    comment    VARCHAR(2000),
+    created_at TIMESTAMP(6),
+    PRIMARY KEY (id),
+    CONSTRAINT fk_review_user FOREIGN KEY (user_id) REFERENCES users (id),
+    CONSTRAINT fk_review_product FOREIGN KEY (product_id) REFERENCES product (id)
+);
+
+CREATE TABLE orders (
+    id         BIGINT         GENERATED BY DEFAULT AS IDENTITY,
+    user_id    BIGINT,
+    total      DECIMAL(38, 2),
+    status     VARCHAR(255),
+    created_at TIMESTAMP(6),
+    PRIMARY KEY (id),
+    CONSTRAINT fk_orders_user FOREIGN KEY (user_id) REFERENCES users (id)
+);
+
+CREATE TABLE order_item (
+    id         BIGINT         GENERATED BY DEFAULT AS IDENTITY,
+    order_id   BIGINT,
+    product_id BIGINT,
+    qty        INTEGER,
+    price      DECIMAL(38, 2),
+    PRIMARY KEY (id),
+    CONSTRAINT fk_order_item_order FOREIGN KEY (order_id) REFERENCES orders (id),
+    CONSTRAINT fk_order_item_product FOREIGN KEY (product_id) REFERENCES product (id)
+);
@@ -0,0 +1,11 @@
+CREATE TABLE product_rating_stats (
+    product_id   BIGINT NOT NULL,
+    review_count BIGINT,
+    rating_sum   BIGINT,
+    stars1       BIGINT,
+    stars2       BIGINT,
+    stars3       BIGINT,
+    stars4       BIGINT,
+    stars5       BIGINT,
+    PRIMARY KEY (product_id)
+);
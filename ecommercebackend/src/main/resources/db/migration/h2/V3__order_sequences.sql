@@ -0,0 +1,5 @@
+CREATE SEQUENCE orders_seq START WITH 1 INCREMENT BY 50;
+ALTER SEQUENCE orders_seq RESTART WITH (SELECT COALESCE(MAX(id), 0) + 51 FROM orders);
+
+CREATE SEQUENCE order_item_seq START WITH 1 INCREMENT BY 50;
+ALTER SEQUENCE order_item_seq RESTART WITH (SELECT COALESCE(MAX(id), 0) + 51 FROM order_item);
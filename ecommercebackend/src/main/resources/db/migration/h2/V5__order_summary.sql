@@ -0,0 +1,11 @@
+CREATE TABLE order_summary (
+    id             BIGINT         NOT NULL,
+    user_id        BIGINT         NOT NULL,
+    status         VARCHAR(255),
+    total          DECIMAL(38, 2),
+    item_count     INTEGER,
+    created_at     TIMESTAMP(6),
+    line_snapshots JSON,
+    PRIMARY KEY (id)
+);
+CREATE INDEX idx_order_summary_user_id_id ON order_summary (user_id, id);
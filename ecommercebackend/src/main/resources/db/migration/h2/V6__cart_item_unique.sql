@@ -0,0 +1,9 @@
+UPDATE cart_item c
+SET qty = (SELECT SUM(d.qty) FROM cart_item d WHERE d.user_id = c.user_id AND d.product_id = c.product_id)
+WHERE c.id = (SELECT MIN(d.id) FROM cart_item d WHERE d.user_id = c.user_id AND d.product_id = c.product_id)
+  AND EXISTS (SELECT 1 FROM cart_item d WHERE d.user_id = c.user_id AND d.product_id = c.product_id AND d.id <> c.id);
+
+DELETE FROM cart_item c
+WHERE c.id > (SELECT MIN(d.id) FROM cart_item d WHERE d.user_id = c.user_id AND d.product_id = c.product_id);
+
+ALTER TABLE cart_item ADD CONSTRAINT uk_cart_item_user_product UNIQUE (user_id, product_id);
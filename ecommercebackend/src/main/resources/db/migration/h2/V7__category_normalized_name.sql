@@ -0,0 +1,2 @@
+ALTER TABLE category ADD COLUMN normalized_name VARCHAR(255);
+ALTER TABLE category ADD CONSTRAINT uk_category_normalized_name UNIQUE (normalized_name);
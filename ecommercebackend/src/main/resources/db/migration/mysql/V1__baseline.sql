@@ -0,0 +1,88 @@
+-- Baseline: the schema ddl-auto=update built from the entities before V2.
+-- Databases that already have these tables are baselined at version 1 and skip this script
+-- (spring.flyway.baseline-on-migrate, see application-fast-startup.properties); V2 onwards still run on them.
+-- Never edit an applied migration: change the schema with a new V<n> here and in db/migration/h2.
+
+CREATE TABLE users (
+    id       BIGINT       NOT NULL AUTO_INCREMENT,
+    username VARCHAR(255) NOT NULL,
+    password VARCHAR(255) NOT NULL,
+    email    VARCHAR(255),
+    address  VARCHAR(255),
+    role     VARCHAR(255),
+    PRIMARY KEY (id),
+    CONSTRAINT uk_users_username UNIQUE (username),
+    CONSTRAINT uk_users_email UNIQUE (email)
+) ENGINE = InnoDB;
+
+CREATE TABLE category (
+    id   BIGINT       NOT NULL AUTO_INCREMENT,
+    name VARCHAR(255),
+    PRIMARY KEY (id),
+    CONSTRAINT uk_category_name UNIQUE (name)
+) ENGINE = InnoDB;
+
+CREATE TABLE product (
+    id          BIGINT         NOT NULL AUTO_INCREMENT,
+    name        VARCHAR(255)   NOT NULL,
+    description VARCHAR(1000),
+    price       DECIMAL(38, 2),
+    qty         INTEGER,
+    image_url   VARCHAR(500),
+    avg_rating  DOUBLE,
+    category_id BIGINT,
+    PRIMARY KEY (id),
+    CONSTRAINT fk_product_category FOREIGN KEY (category_id) REFERENCES category (id)
+) ENGINE = InnoDB;
+
+CREATE TABLE cart_item (
+    id         BIGINT NOT NULL AUTO_INCREMENT,
+    user_id    BIGINT NOT NULL,
+    product_id BIGINT NOT NULL,
+    qty        INTEGER,
+    PRIMARY KEY (id),
+    CONSTRAINT fk_cart_item_user FOREIGN KEY (user_id) REFERENCES users (id),
+    CONSTRAINT fk_cart_item_product FOREIGN KEY (product_id) REFERENCES product (id)
+) ENGINE = InnoDB;
+
+CREATE TABLE wishlist (
+    id         BIGINT NOT NULL AUTO_INCREMENT,
+    user_id    BIGINT,
+    product_id BIGINT,
+    PRIMARY KEY (id),
+    CONSTRAINT fk_wishlist_user FOREIGN KEY (user_id) REFERENCES users (id),
+    CONSTRAINT fk_wishlist_product FOREIGN KEY (product_id) REFERENCES product (id)
+) ENGINE = InnoDB;
+
+CREATE TABLE review (
+    id         BIGINT        NOT NULL AUTO_INCREMENT,
+    user_id    BIGINT,
+    product_id BIGINT,
+    rating     INTEGER,
+    comment    VARCHAR(2000),
+    created_at DATETIME(6),
+    PRIMARY KEY (id),
+    CONSTRAINT fk_review_user FOREIGN KEY (user_id) REFERENCES users (id),
+    CONSTRAINT fk_review_product FOREIGN KEY (product_id) REFERENCES product (id)
+) ENGINE = InnoDB;
+
+CREATE TABLE orders (
+    id         BIGINT         NOT NULL AUTO_INCREMENT,
+    user_id    BIGINT,
+    total      DECIMAL(38, 2),
+    status     VARCHAR(255),
+    created_at DATETIME(6),
+    PRIMARY KEY (id),
+    CONSTRAINT fk_orders_user FOREIGN KEY (user_id) REFERENCES users (id)
+) ENGINE = InnoDB;
+
+CREATE TABLE order_item (
+    id         BIGINT         NOT NULL AUTO_INCREMENT,
+    order_id   BIGINT,
+    product_id BIGINT,
+    qty        INTEGER,
+    price      DECIMAL(38, 2),
+    PRIMARY KEY (id),
+    CONSTRAINT fk_order_item_order FOREIGN KEY (order_id) REFERENCES orders (id),
+    CONSTRAINT fk_order_item_product FOREIGN KEY (product_id) REFERENCES product (id)
+) ENGINE = InnoDB;
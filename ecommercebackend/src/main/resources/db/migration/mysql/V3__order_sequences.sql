@@ -0,0 +1,13 @@
+-- orders / order_item move from IDENTITY to pooled sequences (allocationSize 50).
+-- MySQL has none, so Hibernate keeps the next value in a one-row table; start it past the existing ids.
+-- The AUTO_INCREMENT on the id columns stays: order_item references orders.id, and Hibernate now sets ids itself.
+
+CREATE TABLE orders_seq (
+    next_val BIGINT
+) ENGINE = InnoDB;
+INSERT INTO orders_seq SELECT COALESCE(MAX(id), 0) + 51 FROM orders;
+
+CREATE TABLE order_item_seq (
+    next_val BIGINT
+) ENGINE = InnoDB;
+INSERT INTO order_item_seq SELECT COALESCE(MAX(id), 0) + 51 FROM order_item;
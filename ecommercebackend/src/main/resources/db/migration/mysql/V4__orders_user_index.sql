@@ -0,0 +1,3 @@
+-- Keyset paging of a user's order history: WHERE user_id = ? AND id < ? ORDER BY id DESC
+
+CREATE INDEX idx_orders_user_id_id ON orders (user_id, id);
@@ -0,0 +1,14 @@
+-- One cart line per (user, product). Concurrent adds left duplicates behind:
+-- fold them into the oldest line with the quantities summed, then add the key.
+
+UPDATE cart_item c
+JOIN (SELECT MIN(id) AS keep_id, SUM(qty) AS total FROM cart_item
+      GROUP BY user_id, product_id HAVING COUNT(*) > 1) d ON c.id = d.keep_id
+SET c.qty = d.total;
+
+DELETE c FROM cart_item c
+JOIN (SELECT MIN(id) AS keep_id, user_id, product_id FROM cart_item
+      GROUP BY user_id, product_id HAVING COUNT(*) > 1) d
+  ON c.user_id = d.user_id AND c.product_id = d.product_id AND c.id <> d.keep_id;
+
+ALTER TABLE cart_item ADD CONSTRAINT uk_cart_item_user_product UNIQUE (user_id, product_id);
@@ -0,0 +1,5 @@
+-- Case-insensitive category uniqueness. Existing rows are filled by CategoryNormalizationConfig on startup;
+-- NULLs don't clash, so the key can go on before the backfill.
+
+ALTER TABLE category ADD COLUMN normalized_name VARCHAR(255);
+ALTER TABLE category ADD CONSTRAINT uk_category_normalized_name UNIQUE (normalized_name);
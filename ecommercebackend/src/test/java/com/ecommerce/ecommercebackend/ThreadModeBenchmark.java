@@ -0,0 +1,218 @@
+package com.ecommerce.ecommercebackend;
+
+import com.ecommerce.ecommercebackend.entity.Product;
+import com.ecommerce.ecommercebackend.entity.User;
+import com.ecommerce.ecommercebackend.repository.ProductRepository;
+import com.ecommerce.ecommercebackend.repository.UserRepository;
+import com.ecommerce.ecommercebackend.service.CatalogSnapshotService;
+import com.ecommerce.ecommercebackend.service.ProductFacetIndex;
+import com.ecommerce.ecommercebackend.service.ProductSearchIndex;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.math.BigDecimal;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Browse / cart / checkout mix against the real HTTP stack, once on platform threads
+ * and once on virtual threads. Reports throughput and p50/p99 per mode.
+ *
+ * Run with: mvn test -Dtest=ThreadModeBenchmark (not part of the default suite).
+ * The virtual-thread run needs a Java 21 JVM (build with -Pvirtual-threads); on 17 it is skipped.
+ * H2 in memory has no network wait, so it understates what virtual threads buy against MySQL.
+ */
+class ThreadModeBenchmark {
+
+    private static final int CLIENTS = Integer.getInteger("bench.clients", 200);
+    private static final Duration WARMUP = Duration.ofSeconds(Long.getLong("bench.warmup-seconds", 10));
+    private static final Duration MEASURE = Duration.ofSeconds(Long.getLong("bench.seconds", 30));
+    private static final int PRODUCTS = 500;
+    private static final String PASSWORD = "bench-password";
+
+    private enum Op { BROWSE, SEARCH, CART, CHECKOUT }
+
+    private record Result(String mode, long requests, long errors, double seconds,
+                          Map<Op, long[]> latencies, long[] all) {}
+
+    @Test
+    void platformVersusVirtualThreads() throws Exception {
+        List<Result> results = new ArrayList<>();
+        results.add(run(false));
+        if (Runtime.version().feature() >= 21) {
+            results.add(run(true));
+        } else {
+            System.out.println("Java " + Runtime.version().feature() + ": skipping virtual-thread run (needs 21+)");
+        }
+
+        System.out.printf("%n%-9s %-10s %-8s %-10s %-9s %-9s%n", "mode", "requests", "errors", "req/s", "p50 ms", "p99 ms");
+        for (Result r : results) {
+            System.out.printf("%-9s %-10d %-8d %-10.0f %-9.2f %-9.2f%n", r.mode(), r.requests(), r.errors(),
+                    r.requests() / r.seconds(), pct(r.all(), 0.50), pct(r.all(), 0.99));
+            for (Map.Entry<Op, long[]> e : r.latencies().entrySet()) {
+                System.out.printf("  %-16s %-8d p50 %-8.2f p99 %-8.2f%n", e.getKey(), e.getValue().length,
+                        pct(e.getValue(), 0.50), pct(e.getValue(), 0.99));
+            }
+        }
+    }
+
+    private Result run(boolean virtual) throws Exception {
+        String mode = virtual ? "virtual" : "platform";
+        try (ConfigurableApplicationContext ctx = new SpringApplicationBuilder(EcommerceBackendApplication.class)
+                .profiles("test")
+                .run("--server.port=0",
+                        "--spring.threads.virtual.enabled=" + virtual,
+                        "--security.password.bcrypt-strength=4")) {
+            String base = "http://localhost:" + ((WebServerApplicationContext) ctx).getWebServer().getPort();
+            List<Long> productIds = seedProducts(ctx);
+            List<String> usernames = seedUsers(ctx, mode);
+
+            HttpClient http = HttpClient.newBuilder()
+                    .version(HttpClient.Version.HTTP_1_1)
+                    .connectTimeout(Duration.ofSeconds(5))
+                    .build();
+            List<String> sessions = new ArrayList<>(CLIENTS);
+            for (String username : usernames) {
+                sessions.add(login(http, base, username));
+            }
+
+            drive(http, base, sessions, productIds, WARMUP);
+            return drive(http, base, sessions, productIds, MEASURE).withMode(mode);
+        }
+    }
+
+    private Run drive(HttpClient http, String base, List<String> sessions, List<Long> productIds,
+                      Duration duration) throws Exception {
+        ExecutorService clients = Executors.newFixedThreadPool(CLIENTS);
+        long deadline = System.nanoTime() + duration.toNanos();
+        AtomicLong errors = new AtomicLong();
+        List<Future<Map<Op, List<Long>>>> futures = new ArrayList<>();
+
+        long start = System.nanoTime();
+        for (String session : sessions) {
+            futures.add(clients.submit(() -> {
+                Map<Op, List<Long>> samples = new EnumMap<>(Op.class);
+                ThreadLocalRandom rnd = ThreadLocalRandom.current();
+                while (System.nanoTime() < deadline) {
+                    Op op = pick(rnd.nextInt(100));
+                    HttpRequest req = request(op, base, session, productIds.get(rnd.nextInt(productIds.size())));
+                    long t0 = System.nanoTime();
+                    try {
+                        HttpResponse<byte[]> res = http.send(req, HttpResponse.BodyHandlers.ofByteArray());
+                        // An empty cart at checkout is a legal 400 in this mix, not a server failure
+                        if (res.statusCode() >= 500 || (res.statusCode() >= 400 && op != Op.CHECKOUT)) {
+                            errors.incrementAndGet();
+                        }
+                    } catch (Exception e) {
+                        errors.incrementAndGet();
+                    }
+                    samples.computeIfAbsent(op, k -> new ArrayList<>()).add(System.nanoTime() - t0);
+                }
+                return samples;
+            }));
+        }
+
+        Map<Op, List<Long>> merged = new EnumMap<>(Op.class);
+        for (Future<Map<Op, List<Long>>> f : futures) {
+            f.get().forEach((op, l) -> merged.computeIfAbsent(op, k -> new ArrayList<>()).addAll(l));
+        }
+        double seconds = (System.nanoTime() - start) / 1e9;
+        clients.shutdown();
+        return new Run(merged, errors.get(), seconds);
+    }
+
+    // 60% catalog, 15% search, 20% add to cart, 5% checkout
+    private static Op pick(int roll) {
+        if (roll < 60) return Op.BROWSE;
+        if (roll < 75) return Op.SEARCH;
+        if (roll < 95) return Op.CART;
+        return Op.CHECKOUT;
+    }
+
+    private static HttpRequest request(Op op, String base, String session, Long productId) {
+        HttpRequest.Builder b = switch (op) {
+            case BROWSE -> HttpRequest.newBuilder(URI.create(base + "/api/products"))
+                    .header("Accept-Encoding", "gzip").GET();
+            case SEARCH -> HttpRequest.newBuilder(URI.create(base + "/api/products/search?keyword=bench%20" + (productId % 50)))
+                    .GET();
+            case CART -> HttpRequest.newBuilder(URI.create(base + "/api/cart/add?productId=" + productId + "&qty=1"))
+                    .POST(HttpRequest.BodyPublishers.noBody());
+            case CHECKOUT -> HttpRequest.newBuilder(URI.create(base + "/api/orders/checkout"))
+                    .POST(HttpRequest.BodyPublishers.noBody());
+        };
+        return b.header("Cookie", session).timeout(Duration.ofSeconds(30)).build();
+    }
+
+    // The session cookie is Secure, so HttpClient's CookieManager would not replay it over http
+    private static String login(HttpClient http, String base, String username) throws Exception {
+        HttpRequest req = HttpRequest.newBuilder(URI.create(base + "/api/auth/login"))
+                .header("Content-Type", "application/x-www-form-urlencoded")
+                .POST(HttpRequest.BodyPublishers.ofString("username=" + username + "&password=" + PASSWORD))
+                .build();
+        HttpResponse<Void> res = http.send(req, HttpResponse.BodyHandlers.discarding());
+        if (res.statusCode() != 200) throw new IllegalStateException("login failed for " + username + ": " + res.statusCode());
+        return res.headers().allValues("Set-Cookie").stream()
+                .filter(c -> c.startsWith("JSESSIONID="))
+                .map(c -> c.substring(0, c.indexOf(';')))
+                .findFirst()
+                .orElseThrow(() -> new IllegalStateException("no session cookie for " + username));
+    }
+
+    private static List<Long> seedProducts(ConfigurableApplicationContext ctx) {
+        List<Product> products = new ArrayList<>(PRODUCTS);
+        for (int i = 0; i < PRODUCTS; i++) {
+            Product p = new Product();
+            p.setName("bench " + (i % 50) + " item " + i);
+            p.setDescription("Benchmark product number " + i);
+            p.setPrice(BigDecimal.valueOf(100 + i));
+            p.setQty(Integer.MAX_VALUE / 2);
+            products.add(p);
+        }
+        List<Long> ids = ctx.getBean(ProductRepository.class).saveAll(products).stream().map(Product::getId).toList();
+        ctx.getBean(ProductSearchIndex.class).rebuild();
+        ctx.getBean(ProductFacetIndex.class).rebuild();
+        ctx.getBean(CatalogSnapshotService.class).bump();
+        return ids;
+    }
+
+    private static List<String> seedUsers(ConfigurableApplicationContext ctx, String mode) {
+        String hash = ctx.getBean(PasswordEncoder.class).encode(PASSWORD);
+        List<User> users = new ArrayList<>(CLIENTS);
+        for (int i = 0; i < CLIENTS; i++) {
+            User u = new User();
+            u.setUsername("bench-" + mode + "-" + i);
+            u.setPassword(hash);
+            u.setRole("USER");
+            users.add(u);
+        }
+        return ctx.getBean(UserRepository.class).saveAll(users).stream().map(User::getUsername).toList();
+    }
+
+    private static double pct(long[] sorted, double p) {
+        if (sorted.length == 0) return 0;
+        return sorted[Math.min(sorted.length - 1, (int) (sorted.length * p))] / 1e6;
+    }
+
+    private record Run(Map<Op, List<Long>> samples, long errors, double seconds) {
+        Result withMode(String mode) {
+            Map<Op, long[]> latencies = new EnumMap<>(Op.class);
+            long total = 0;
+            for (Map.Entry<Op, List<Long>> e : samples.entrySet()) {
+                long[] a = e.getValue().stream().mapToLong(Long::longValue).sorted().toArray();
+                latencies.put(e.getKey(), a);
+                total += a.length;
+            }
+            long[] all = samples.values().stream().flatMap(List::stream).mapToLong(Long::longValue).sorted().toArray();
+            return new Result(mode, total, errors, seconds, latencies, all);
+        }
+    }
+}
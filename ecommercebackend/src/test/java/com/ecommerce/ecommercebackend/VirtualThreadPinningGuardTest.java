@@ -0,0 +1,39 @@
+package com.ecommerce.ecommercebackend;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// Under the vthreads profile a synchronized block that blocks (JDBC, I/O) pins the carrier thread.
+// Use java.util.concurrent locks in application code instead.
+class VirtualThreadPinningGuardTest {
+
+    private static final Pattern SYNCHRONIZED = Pattern.compile(
+            "(^|[\\s;{}])synchronized\\s*\\(|\\bsynchronized\\s+[\\w<>\\[\\], ?]+\\s+\\w+\\s*\\(", Pattern.MULTILINE);
+
+    @Test
+    void applicationCodeHasNoSynchronizedBlocksOrMethods() throws IOException {
+        try (Stream<Path> files = Files.walk(Path.of("src/main/java"))) {
+            List<Path> offenders = files
+                    .filter(p -> p.toString().endsWith(".java"))
+                    .filter(p -> SYNCHRONIZED.matcher(read(p)).find())
+                    .toList();
+            assertTrue(offenders.isEmpty(), "synchronized pins virtual threads, use a ReentrantLock: " + offenders);
+        }
+    }
+
+    private static String read(Path p) {
+        try {
+            return Files.readString(p);
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
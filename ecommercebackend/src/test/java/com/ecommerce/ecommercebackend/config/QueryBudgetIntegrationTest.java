@@ -0,0 +1,118 @@
+package com.ecommerce.ecommercebackend.config;
+
+import com.ecommerce.ecommercebackend.controller.CartController;
+import com.ecommerce.ecommercebackend.dto.AuthUser;
+import com.ecommerce.ecommercebackend.entity.Product;
+import com.ecommerce.ecommercebackend.entity.User;
+import com.ecommerce.ecommercebackend.repository.CartItemRepository;
+import com.ecommerce.ecommercebackend.repository.ProductRepository;
+import com.ecommerce.ecommercebackend.repository.UserRepository;
+import com.ecommerce.ecommercebackend.service.ProductService;
+import com.ecommerce.ecommercebackend.service.UserCache;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.RequestBuilder;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.user;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class QueryBudgetIntegrationTest {
+
+    @Autowired MockMvc mvc;
+    @Autowired QueryBudgetMonitor monitor;
+    @Autowired UserRepository userRepo;
+    @Autowired UserCache userCache;
+    @Autowired ProductService productService;
+    @Autowired ProductRepository productRepo;
+    @Autowired CartItemRepository cartRepo;
+
+    private User shopper;
+    private Product product;
+
+    @BeforeEach
+    void setUp() {
+        User u = new User();
+        u.setUsername("budget-" + UUID.randomUUID());
+        u.setPassword("x");
+        shopper = userRepo.save(u);
+        // Budgets count the steady state, where the login already filled the user cache
+        userCache.put(shopper);
+
+        Product p = new Product();
+        p.setName("budget-" + UUID.randomUUID());
+        p.setPrice(BigDecimal.TEN);
+        p.setQty(100);
+        product = productService.create(p);
+
+        monitor.clearViolations();
+    }
+
+    @Test
+    void budgetedEndpointsStayWithinBudgetAndReportTheirQueries() throws Exception {
+        call(post("/api/cart/add").param("productId", product.getId().toString()).param("qty", "2"));
+        call(post("/api/cart/add").param("productId", product.getId().toString()).param("qty", "1"));
+        MockHttpServletResponse cart = call(get("/api/cart"));
+        assertEquals("1", cart.getHeader(RequestSqlMetricsFilter.QUERY_COUNT_HEADER));
+        assertNotNull(cart.getHeader(RequestSqlMetricsFilter.DB_TIME_HEADER));
+
+        Long line = cartRepo.findViewsByUserId(shopper.getId()).get(0).getId();
+        call(put("/api/cart/update/" + line).param("qty", "5"));
+        call(delete("/api/cart/remove/" + line));
+
+        call(post("/api/wishlist/add").param("productId", product.getId().toString()));
+        call(get("/api/wishlist"));
+
+        call(post("/api/reviews/add").contentType(MediaType.APPLICATION_JSON)
+                .content("{\"productId\":" + product.getId() + ",\"rating\":4,\"comment\":\"Solid\"}"));
+        call(get("/api/reviews"));
+
+        call(get("/api/orders/history"));
+
+        assertEquals(List.of(), monitor.violations(), "handlers over their @QueryBudget");
+        assertTrue(monitor.topOffenders(20).stream().anyMatch(o -> o.handler().equals("CartController.getCart")));
+    }
+
+    @Test
+    void overBudgetRequestsAreRecorded() throws Exception {
+        QueryBudget one = CartController.class.getMethod("getCart", AuthUser.class).getAnnotation(QueryBudget.class);
+        SqlRequestStats stats = SqlRequestStats.begin();
+        try {
+            productRepo.count();
+            productRepo.count();
+        } finally {
+            SqlRequestStats.end();
+        }
+
+        monitor.record("CartController.getCart", "/api/cart", stats, one, 200);
+        monitor.record("CartController.getCart", "/api/cart", stats, one, 404);
+
+        assertEquals(1, monitor.violations().size(), "error responses are not held to the budget");
+        QueryBudgetMonitor.Violation v = monitor.violations().get(0);
+        assertEquals(2, v.statements());
+        assertEquals(1, v.budget());
+    }
+
+    private MockHttpServletResponse call(MockHttpServletRequestBuilder request) throws Exception {
+        RequestBuilder authenticated = request.with(user(shopper.getUsername()).roles("USER"));
+        MockHttpServletResponse response = mvc.perform(authenticated).andReturn().getResponse();
+        assertTrue(response.getStatus() < 400, response.getStatus() + " " + response.getContentAsString());
+        assertNotNull(response.getHeader(RequestSqlMetricsFilter.QUERY_COUNT_HEADER));
+        return response;
+    }
+}
@@ -0,0 +1,124 @@
+package com.ecommerce.ecommercebackend.config;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+import org.springframework.test.web.servlet.request.RequestPostProcessor;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.user;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+
+@SpringBootTest(properties = {
+        "rate-limit.enabled=true",
+        "rate-limit.routes.search.per-ip.capacity=3",
+        "rate-limit.routes.search.per-ip.period=1h",
+        "rate-limit.routes.search.per-user.capacity=5",
+        "rate-limit.routes.search.per-user.period=1h",
+        "rate-limit.routes.login.per-ip.capacity=100",
+        "rate-limit.routes.login.per-user.capacity=2",
+        "rate-limit.routes.login.per-user.period=1h"})
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class RateLimitTest {
+
+    private static final AtomicInteger NEXT_IP = new AtomicInteger(1);
+
+    @Autowired MockMvc mvc;
+
+    @Test
+    void anonymousSearchIsLimitedPerIp() throws Exception {
+        String ip = nextIp();
+        for (int i = 0; i < 3; i++) {
+            assertEquals(200, search(ip).getStatus());
+        }
+        MockHttpServletResponse refused = search(ip);
+        assertEquals(429, refused.getStatus());
+        long retryAfter = Long.parseLong(refused.getHeader(HttpHeaders.RETRY_AFTER));
+        assertTrue(retryAfter > 0 && retryAfter <= 3600, "Retry-After " + retryAfter);
+
+        assertEquals(200, search(nextIp()).getStatus(), "other clients keep their own bucket");
+    }
+
+    @Test
+    void loggedInSearchIsLimitedPerUserNotPerIp() throws Exception {
+        String ip = nextIp();
+        for (int i = 0; i < 3; i++) search(ip);
+        assertEquals(429, search(ip).getStatus());
+
+        String username = "limited-" + UUID.randomUUID();
+        for (int i = 0; i < 5; i++) {
+            assertEquals(200, mvc.perform(searchFrom(ip).with(user(username))).andReturn().getResponse().getStatus());
+        }
+        assertEquals(429, mvc.perform(searchFrom(nextIp()).with(user(username))).andReturn().getResponse().getStatus(),
+                "the user's bucket follows them across addresses");
+    }
+
+    @Test
+    void loginAttemptsAreLimitedPerAccountAndIp() throws Exception {
+        String victim = "victim-" + UUID.randomUUID();
+        String attacker = nextIp();
+        assertEquals(401, login(victim, attacker).getStatus());
+        assertEquals(401, login(victim, attacker).getStatus());
+        assertEquals(429, login(victim, attacker).getStatus());
+
+        assertEquals(401, login("someone-else-" + UUID.randomUUID(), attacker).getStatus());
+        assertEquals(401, login(victim, nextIp()).getStatus(), "the victim can still log in from their own address");
+    }
+
+    @Test
+    void bucketsRefillEvenlyOverThePeriod() throws Exception {
+        RateLimiter limiter = new RateLimiter(new RateLimitProperties(true, 100, Duration.ofMinutes(10), Map.of("search",
+                new RateLimitProperties.Route("/api/products/search", Set.of(), null,
+                        new RateLimitProperties.Limit(2, Duration.ofMillis(200)), null))));
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/products/search");
+
+        assertEquals(0, limiter.acquire(request));
+        assertEquals(0, limiter.acquire(request));
+        long wait = limiter.acquire(request);
+        assertTrue(wait > 0 && wait <= TimeUnit.MILLISECONDS.toNanos(100), "one token per 100 ms, waited " + wait);
+
+        TimeUnit.NANOSECONDS.sleep(wait);
+        assertEquals(0, limiter.acquire(request));
+        assertEquals(0, limiter.acquire(new MockHttpServletRequest("GET", "/api/products/filter")), "unlisted routes pass");
+    }
+
+    private MockHttpServletResponse search(String ip) throws Exception {
+        return mvc.perform(searchFrom(ip)).andReturn().getResponse();
+    }
+
+    private MockHttpServletResponse login(String username, String ip) throws Exception {
+        return mvc.perform(post("/api/auth/login").param("username", username).param("password", "wrong")
+                .with(from(ip))).andReturn().getResponse();
+    }
+
+    private static MockHttpServletRequestBuilder searchFrom(String ip) {
+        return get("/api/products/search").param("keyword", "anything").with(from(ip));
+    }
+
+    private static RequestPostProcessor from(String ip) {
+        return request -> {
+            request.setRemoteAddr(ip);
+            return request;
+        };
+    }
+
+    private static String nextIp() {
+        int n = NEXT_IP.getAndIncrement();
+        return "203.0." + (n / 250) + "." + (n % 250 + 1);
+    }
+}
@@ -0,0 +1,119 @@
+package com.ecommerce.ecommercebackend.config;
+
+import com.ecommerce.ecommercebackend.entity.Category;
+import com.ecommerce.ecommercebackend.repository.CategoryRepository;
+import com.zaxxer.hikari.HikariDataSource;
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.mock.web.MockHttpSession;
+import org.springframework.test.context.ActiveProfiles;
+
+import javax.sql.DataSource;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Two unrelated H2 databases: nothing replicates, so a row only one side has shows where a read went
+@SpringBootTest(properties = {
+        "spring.datasource.url=" + ReplicaRoutingTest.PRIMARY_URL,
+        "app.datasource.replica.url=" + ReplicaRoutingTest.REPLICA_URL,
+        // Probes only when a test calls check()
+        "app.datasource.replica.health-interval-ms=3600000"})
+@ActiveProfiles("test")
+class ReplicaRoutingTest {
+
+    static final String PRIMARY_URL = "jdbc:h2:mem:routing-primary;MODE=MySQL;DB_CLOSE_DELAY=-1;LOCK_TIMEOUT=10000;IGNORE_UNKNOWN_SETTINGS=TRUE";
+    static final String REPLICA_URL = "jdbc:h2:mem:routing-replica;MODE=MySQL;DB_CLOSE_DELAY=-1;LOCK_TIMEOUT=10000;IGNORE_UNKNOWN_SETTINGS=TRUE";
+
+    @Autowired CategoryRepository categoryRepo;
+    @Autowired @Qualifier("replicaDataSource") DataSource replica;
+    @Autowired @Qualifier("primaryDataSource") DataSource primary;
+
+    // The primary's schema comes from ddl-auto; the replica gets the same one from the migrations
+    @BeforeAll
+    static void replicaSchema() {
+        Flyway.configure().dataSource(REPLICA_URL, "sa", "").locations("classpath:db/migration/h2").load().migrate();
+    }
+
+    @Test
+    void readOnlyReadsGoToTheReplicaUnlessPinned() {
+        String onPrimary = "primary " + UUID.randomUUID();
+        String onReplica = "replica " + UUID.randomUUID();
+        categoryRepo.save(category(onPrimary));
+        new JdbcTemplate(replica).update("INSERT INTO category (name, normalized_name) VALUES (?, ?)",
+                onReplica, Category.normalize(onReplica));
+
+        // A read-only query method
+        assertTrue(categoryRepo.findByNormalizedName(Category.normalize(onReplica)).isPresent());
+        assertTrue(categoryRepo.findByNormalizedName(Category.normalize(onPrimary)).isEmpty(), "not replicated yet");
+
+        assertTrue(ReadRouting.onPrimary(() -> categoryRepo.findByNormalizedName(Category.normalize(onPrimary))).isPresent());
+        assertFalse(ReadRouting.isPinned());
+    }
+
+    @Test
+    void writesAndTheWritingSessionStickToThePrimary() throws Exception {
+        ReadYourWritesFilter filter = new ReadYourWritesFilter(60_000);
+        MockHttpSession session = new MockHttpSession();
+
+        assertFalse(pinnedDuring(filter, "GET", session), "no write yet");
+        assertTrue(pinnedDuring(filter, "POST", session), "reads inside a write request");
+        assertTrue(pinnedDuring(filter, "GET", session), "reads right after the session wrote");
+        assertFalse(pinnedDuring(filter, "GET", new MockHttpSession()), "other sessions keep using the replica");
+        assertFalse(ReadRouting.isPinned());
+    }
+
+    @Test
+    void readsFallBackToThePrimaryWhenTheReplicaIsDown() throws Exception {
+        String onPrimary = "fallback " + UUID.randomUUID();
+        categoryRepo.save(category(onPrimary));
+
+        // A replica pool of its own, so closing it leaves the shared context's replica alone
+        HikariDataSource down = new HikariDataSource();
+        down.setJdbcUrl(REPLICA_URL);
+        down.setUsername("sa");
+        down.close();
+        ReplicaHealth downHealth = new ReplicaHealth(down, 0);
+        ReplicaRoutingDataSource reads = new ReplicaRoutingDataSource(primary, down, downHealth);
+
+        assertTrue(hasCategory(reads, onPrimary));
+        assertFalse(downHealth.isUp());
+        assertEquals(1, reads.fallbacks());
+
+        // Later reads skip the replica without trying it, and the probe keeps it down
+        assertTrue(hasCategory(reads, onPrimary));
+        downHealth.check();
+        assertFalse(downHealth.isUp());
+        assertEquals(1, reads.fallbacks());
+        assertEquals(2, reads.primaryReads());
+        assertEquals(0, reads.replicaReads());
+    }
+
+    private static boolean hasCategory(DataSource ds, String name) {
+        Integer n = new JdbcTemplate(ds).queryForObject("SELECT COUNT(*) FROM category WHERE name = ?", Integer.class, name);
+        return n != null && n > 0;
+    }
+
+    private static boolean pinnedDuring(ReadYourWritesFilter filter, String method, MockHttpSession session)
+            throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest(method, "/api/cart");
+        request.setSession(session);
+        AtomicBoolean pinned = new AtomicBoolean();
+        filter.doFilter(request, new MockHttpServletResponse(), (req, res) -> pinned.set(ReadRouting.isPinned()));
+        return pinned.get();
+    }
+
+    private static Category category(String name) {
+        Category c = new Category();
+        c.setName(name);
+        return c;
+    }
+}
@@ -0,0 +1,74 @@
+package com.ecommerce.ecommercebackend.config;
+
+import com.ecommerce.ecommercebackend.EcommerceBackendApplication;
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.jdbc.datasource.init.ResourceDatabasePopulator;
+import org.springframework.test.context.ActiveProfiles;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Boots on a schema built only by the migrations; ddl-auto=validate fails the context if an entity drifted from them
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:migrated;MODE=MySQL;DB_CLOSE_DELAY=-1;LOCK_TIMEOUT=10000;IGNORE_UNKNOWN_SETTINGS=TRUE",
+        "spring.flyway.enabled=true",
+        "spring.flyway.locations=classpath:db/migration/{vendor}",
+        "spring.jpa.hibernate.ddl-auto=validate"})
+@ActiveProfiles("test")
+class SchemaMigrationTest {
+
+    private static final String LATEST = "7";
+
+    private static final String LEGACY_URL =
+            "jdbc:h2:mem:legacy;MODE=MySQL;DB_CLOSE_DELAY=-1;LOCK_TIMEOUT=10000;IGNORE_UNKNOWN_SETTINGS=TRUE";
+
+    @Autowired Flyway flyway;
+
+    @Test
+    void migrationsMatchTheEntities() {
+        assertNotNull(flyway.info().current());
+        assertEquals(LATEST, flyway.info().current().getVersion().getVersion());
+        assertEquals(0, flyway.info().pending().length);
+    }
+
+    // A database ddl-auto=update built before the migrations: the V1 tables with data and no Flyway history
+    @Test
+    void fastStartupUpgradesABaselineOnlyDatabase() {
+        DriverManagerDataSource legacy = new DriverManagerDataSource(LEGACY_URL, "sa", "");
+        new ResourceDatabasePopulator(new ClassPathResource("db/migration/h2/V1__baseline.sql")).execute(legacy);
+        JdbcTemplate jdbc = new JdbcTemplate(legacy);
+        jdbc.update("INSERT INTO users (id, username, password) VALUES (1, 'legacy', 'x')");
+        jdbc.update("INSERT INTO category (id, name) VALUES (1, 'Legacy Books')");
+        jdbc.update("INSERT INTO product (id, name, qty, category_id) VALUES (1, 'legacy', 5, 1)");
+        jdbc.update("INSERT INTO cart_item (user_id, product_id, qty) VALUES (1, 1, 2), (1, 1, 3)");
+        jdbc.update("INSERT INTO orders (id, user_id, status) VALUES (70, 1, 'PLACED')");
+        jdbc.update("INSERT INTO order_item (id, order_id, product_id, qty) VALUES (90, 70, 1, 1)");
+
+        try (ConfigurableApplicationContext ctx = new SpringApplicationBuilder(EcommerceBackendApplication.class)
+                .profiles("test")
+                .run("--server.port=0",
+                        "--spring.datasource.url=" + LEGACY_URL,
+                        "--spring.flyway.enabled=true",
+                        "--spring.flyway.locations=classpath:db/migration/{vendor}",
+                        "--spring.flyway.baseline-on-migrate=true",
+                        "--spring.flyway.baseline-version=1",
+                        "--spring.jpa.hibernate.ddl-auto=validate")) {
+            Flyway migrated = ctx.getBean(Flyway.class);
+            assertEquals(LATEST, migrated.info().current().getVersion().getVersion());
+            assertEquals(0, migrated.info().pending().length);
+        }
+
+        assertEquals(1, jdbc.queryForObject("SELECT COUNT(*) FROM cart_item", Integer.class), "duplicate lines merged");
+        assertEquals(5, jdbc.queryForObject("SELECT qty FROM cart_item", Integer.class));
+        assertTrue(jdbc.queryForObject("SELECT NEXT VALUE FOR orders_seq", Long.class) > 70, "sequence starts past old ids");
+        assertTrue(jdbc.queryForObject("SELECT NEXT VALUE FOR order_item_seq", Long.class) > 90);
+        assertEquals("legacy books", jdbc.queryForObject("SELECT normalized_name FROM category WHERE id = 1", String.class));
+    }
+}
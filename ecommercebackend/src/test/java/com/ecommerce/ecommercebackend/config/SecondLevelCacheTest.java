@@ -0,0 +1,125 @@
+package com.ecommerce.ecommercebackend.config;
+
+import com.ecommerce.ecommercebackend.entity.Category;
+import com.ecommerce.ecommercebackend.entity.Product;
+import com.ecommerce.ecommercebackend.entity.User;
+import com.ecommerce.ecommercebackend.repository.CategoryRepository;
+import com.ecommerce.ecommercebackend.repository.ProductRepository;
+import com.ecommerce.ecommercebackend.repository.UserRepository;
+import com.ecommerce.ecommercebackend.service.ProductService;
+import com.ecommerce.ecommercebackend.service.ReviewService;
+import com.ecommerce.ecommercebackend.service.StockReservationService;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class SecondLevelCacheTest {
+
+    @Autowired ProductService productService;
+    @Autowired ProductRepository productRepo;
+    @Autowired CategoryRepository categoryRepo;
+    @Autowired UserRepository userRepo;
+    @Autowired StockReservationService stock;
+    @Autowired ReviewService reviews;
+    @Autowired TransactionTemplate tx;
+    @Autowired MeterRegistry registry;
+
+    @Test
+    void productLookupsComeFromTheCacheAndSeeEveryWrite() {
+        Category category = new Category();
+        category.setName("l2-" + UUID.randomUUID());
+        category = categoryRepo.save(category);
+        Product p = new Product();
+        p.setName("l2-" + UUID.randomUUID());
+        p.setPrice(BigDecimal.TEN);
+        p.setQty(10);
+        p.setCategory(category);
+        Long id = productService.create(p).getId();
+
+        productRepo.findById(id).orElseThrow();
+        double hits = regionRequests("product", "hit");
+        assertEquals(0, statements(() -> productRepo.findById(id).orElseThrow()), "product and category both cached");
+        assertTrue(regionRequests("product", "hit") > hits);
+
+        // Admin edit through the repository: Hibernate updates the cached row itself
+        p.setPrice(BigDecimal.ONE);
+        productService.update(id, p);
+        assertEquals(0, BigDecimal.ONE.compareTo(productRepo.findById(id).orElseThrow().getPrice()));
+
+        // Category rename: products resolve the category from its own region
+        category.setName("renamed-" + UUID.randomUUID());
+        categoryRepo.save(category);
+        assertEquals(category.getName(), productRepo.findById(id).orElseThrow().getCategory().getName());
+
+        // Checkout's JDBC decrement bypasses Hibernate and evicts the rows it touched on commit
+        tx.executeWithoutResult(s -> stock.reserve(Map.of(id, 3)));
+        assertEquals(7, productRepo.findById(id).orElseThrow().getQty());
+    }
+
+    @Test
+    void aReviewEvictsOnlyItsOwnProduct() {
+        Product rated = productService.create(product());
+        Product other = productService.create(product());
+        User u = new User();
+        u.setUsername("l2-" + UUID.randomUUID());
+        u.setPassword("x");
+        u = userRepo.save(u);
+        productRepo.findById(rated.getId()).orElseThrow();
+        productRepo.findById(other.getId()).orElseThrow();
+
+        reviews.add(u, rated, 4, "fine");
+
+        assertEquals(4.0, productRepo.findById(rated.getId()).orElseThrow().getAvgRating());
+        assertEquals(0, statements(() -> productRepo.findById(other.getId()).orElseThrow()),
+                "other products stay cached across a review write");
+    }
+
+    @Test
+    void usernameLookupsResolveThroughTheNaturalIdCache() {
+        User u = new User();
+        u.setUsername("l2-" + UUID.randomUUID());
+        u.setPassword("x");
+        Long id = userRepo.save(u).getId();
+
+        userRepo.findByUsername(u.getUsername()).orElseThrow();
+        assertEquals(0, statements(() -> assertEquals(id, userRepo.findByUsername(u.getUsername()).orElseThrow().getId())));
+        assertTrue(userRepo.findByUsername("nobody-" + UUID.randomUUID()).isEmpty());
+    }
+
+    private static Product product() {
+        Product p = new Product();
+        p.setName("l2-" + UUID.randomUUID());
+        p.setPrice(BigDecimal.TEN);
+        p.setQty(10);
+        return p;
+    }
+
+    private double regionRequests(String region, String result) {
+        FunctionCounter c = registry.find("hibernate.second.level.cache.requests")
+                .tags("region", region, "result", result).functionCounter();
+        assertNotNull(c, "no metrics for region " + region);
+        return c.count();
+    }
+
+    private static long statements(Runnable work) {
+        SqlRequestStats stats = SqlRequestStats.begin();
+        try {
+            work.run();
+        } finally {
+            SqlRequestStats.end();
+        }
+        return stats.statements();
+    }
+}
@@ -0,0 +1,38 @@
+package com.ecommerce.ecommercebackend.config;
+
+import com.ecommerce.ecommercebackend.repository.ProductRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class SqlMetricsTest {
+
+    @Autowired ProductRepository productRepo;
+    @Autowired MeterRegistry registry;
+
+    @Test
+    void statementsAreCountedPerRequestAndTimedByType() {
+        Timer selects = registry.find("db.statements").tag("type", "select").timer();
+        long before = selects != null ? selects.count() : 0;
+
+        SqlRequestStats stats = SqlRequestStats.begin();
+        try {
+            productRepo.count();
+            productRepo.findAllIds();
+        } finally {
+            SqlRequestStats.end();
+        }
+
+        assertEquals(2, stats.statements());
+        assertTrue(stats.nanos() > 0);
+        assertNull(SqlRequestStats.current());
+        assertEquals(before + 2, registry.get("db.statements").tag("type", "select").timer().count());
+    }
+}
@@ -0,0 +1,113 @@
+package com.ecommerce.ecommercebackend.repository;
+
+import com.ecommerce.ecommercebackend.entity.*;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Entity graph vs read model for the cart, wishlist and reviews lists: statements and JSON bytes
+@SpringBootTest
+@ActiveProfiles("test")
+class ReadModelPayloadTest {
+
+    private static final int ROWS = 20;
+
+    @Autowired CartItemRepository cartRepo;
+    @Autowired WishlistRepository wishlistRepo;
+    @Autowired ReviewRepository reviewRepo;
+    @Autowired ProductRepository productRepo;
+    @Autowired CategoryRepository categoryRepo;
+    @Autowired UserRepository userRepo;
+    @Autowired ObjectMapper objectMapper;
+    @Autowired EntityManagerFactory emf;
+
+    private Statistics stats;
+    private User user;
+
+    @BeforeEach
+    void seed() {
+        stats = emf.unwrap(SessionFactory.class).getStatistics();
+        stats.setStatisticsEnabled(true);
+        reviewRepo.deleteAll();
+
+        Category c = new Category();
+        c.setName("read-model-" + UUID.randomUUID());
+        c = categoryRepo.save(c);
+
+        user = new User();
+        user.setUsername("reader-" + UUID.randomUUID());
+        user.setPassword("$2a$10$abcdefghijklmnopqrstuuNoTaRealHashButTheRightLength012345");
+        user.setEmail(user.getUsername() + "@example.com");
+        user.setAddress("221B Baker Street");
+        user = userRepo.save(user);
+
+        List<Product> products = new ArrayList<>();
+        for (int i = 0; i < ROWS; i++) {
+            Product p = new Product();
+            p.setName("Read model product " + i);
+            p.setDescription("A fairly ordinary product description that the cart page never shows, #" + i);
+            p.setPrice(BigDecimal.valueOf(199 + i));
+            p.setQty(10);
+            p.setImageUrl("https://example.com/img/" + i + ".jpg");
+            p.setCategory(c);
+            products.add(p);
+        }
+        products = productRepo.saveAll(products);
+
+        for (Product p : products) {
+            cartRepo.save(new CartItem(null, user, p, 1));
+            Wishlist w = new Wishlist();
+            w.setUser(user);
+            w.setProduct(p);
+            wishlistRepo.save(w);
+            Review r = new Review();
+            r.setUser(user);
+            r.setProduct(p);
+            r.setRating(4);
+            r.setComment("Good value");
+            reviewRepo.save(r);
+        }
+    }
+
+    @Test
+    void readModelsUseOneQueryAndNeverCarryTheUserRow() throws Exception {
+        System.out.printf("%n%-10s %-8s %-12s %-8s %-12s%n", "endpoint", "before", "bytes", "after", "bytes");
+        compare("cart", () -> cartRepo.findByUserId(user.getId()), () -> cartRepo.findViewsByUserId(user.getId()));
+        compare("wishlist", () -> wishlistRepo.findByUserId(user.getId()), () -> wishlistRepo.findViewsByUserId(user.getId()));
+        compare("reviews", reviewRepo::findAll, reviewRepo::findAllViews);
+    }
+
+    private void compare(String endpoint, Supplier<List<?>> entities, Supplier<List<?>> views) throws Exception {
+        stats.clear();
+        byte[] before = objectMapper.writeValueAsBytes(entities.get());
+        long beforeStatements = stats.getPrepareStatementCount();
+
+        stats.clear();
+        List<?> rows = views.get();
+        byte[] after = objectMapper.writeValueAsBytes(rows);
+        long afterStatements = stats.getPrepareStatementCount();
+
+        System.out.printf("%-10s %-8d %-12d %-8d %-12d%n", endpoint, beforeStatements, before.length, afterStatements, after.length);
+
+        assertEquals(ROWS, rows.size());
+        assertEquals(1, afterStatements, endpoint + " read model should be a single query");
+        assertTrue(after.length < before.length, endpoint + " payload did not shrink");
+        String json = new String(after);
+        assertFalse(json.contains("password"), endpoint + " leaks the password hash");
+        assertFalse(json.contains(user.getEmail()), endpoint + " leaks the user's email");
+    }
+}
@@ -0,0 +1,138 @@
+package com.ecommerce.ecommercebackend.service;
+
+import com.ecommerce.ecommercebackend.dto.CartItemView;
+import com.ecommerce.ecommercebackend.entity.Order;
+import com.ecommerce.ecommercebackend.entity.Product;
+import com.ecommerce.ecommercebackend.entity.User;
+import com.ecommerce.ecommercebackend.repository.CartItemRepository;
+import com.ecommerce.ecommercebackend.repository.ProductRepository;
+import com.ecommerce.ecommercebackend.repository.UserRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Scheduled flush pushed out of the way so the test decides when cart_item gets written
+@SpringBootTest(properties = {"cart.store.enabled=true", "cart.store.flush-interval-ms=3600000"})
+@ActiveProfiles("test")
+class CartStoreTest {
+
+    @Autowired CartService cartService;
+    @Autowired CartStore store;
+    @Autowired OrderService orderService;
+    @Autowired CartItemRepository cartRepo;
+    @Autowired ProductRepository productRepo;
+    @Autowired UserRepository userRepo;
+
+    private Long userId;
+    private Product a;
+    private Product b;
+
+    @BeforeEach
+    void seed() {
+        User u = new User();
+        u.setUsername("store-" + UUID.randomUUID());
+        u.setPassword("x");
+        userId = userRepo.save(u).getId();
+        a = product();
+        b = product();
+        cartService.add(userId, a.getId(), 1);
+        cartService.add(userId, b.getId(), 1);
+    }
+
+    @Test
+    void quantityClicksAreCoalescedIntoOneWrite() {
+        Long line = lineFor(a).getId();
+        for (int qty = 2; qty <= 40; qty++) {
+            cartService.updateQty(userId, line, qty);
+        }
+
+        // Served from memory, cart_item not touched yet
+        assertEquals(40, lineFor(a).getQty());
+        assertEquals(1, cartRepo.findQty(userId, a.getId()));
+
+        store.flushAll();
+        assertEquals(40, cartRepo.findQty(userId, a.getId()));
+        assertEquals(1, store.lastBatchSize(), "39 clicks should coalesce into a single row update");
+    }
+
+    @Test
+    void removalIsDeferredAndAddNeverRevivesIt() {
+        cartService.removeLine(userId, lineFor(a).getId());
+        assertNotNull(cartRepo.findQty(userId, a.getId()));
+
+        // Write-through add flushes the pending removal first, so this is a fresh line of 3
+        assertEquals(3, cartService.add(userId, a.getId(), 3));
+        assertEquals(3, lineFor(a).getQty());
+    }
+
+    @Test
+    void checkoutSeesEveryBufferedEdit() {
+        cartService.updateQty(userId, lineFor(a).getId(), 5);
+        cartService.removeLine(userId, lineFor(b).getId());
+
+        Order o = cartService.checkout(userId, () -> orderService.checkout(userId));
+
+        assertEquals(1, o.getItems().size());
+        assertEquals(5, o.getItems().get(0).getQty());
+        assertTrue(cartService.list(userId).isEmpty());
+    }
+
+    @Test
+    void editsDuringCheckoutWaitAndAreNeverSilentlyDropped() throws Exception {
+        Long line = lineFor(a).getId();
+        cartService.updateQty(userId, line, 2);
+        ExecutorService editor = Executors.newSingleThreadExecutor();
+        try {
+            Future<?>[] edit = new Future<?>[1];
+            Order o = cartService.checkout(userId, () -> {
+                edit[0] = editor.submit(() -> cartService.updateQty(userId, line, 9));
+                assertThrows(TimeoutException.class, () -> edit[0].get(200, TimeUnit.MILLISECONDS),
+                        "an edit made mid-checkout waits for the order to commit");
+                return orderService.checkout(userId);
+            });
+
+            assertEquals(2, o.getItems().stream()
+                    .filter(i -> i.getProduct().getId().equals(a.getId())).findFirst().orElseThrow().getQty());
+            ExecutionException late = assertThrows(ExecutionException.class, () -> edit[0].get(5, TimeUnit.SECONDS));
+            assertInstanceOf(ResponseStatusException.class, late.getCause(), "the line is gone, so the edit is refused");
+            assertTrue(cartService.list(userId).isEmpty());
+        } finally {
+            editor.shutdownNow();
+        }
+    }
+
+    @Test
+    void afterACrashTheCartReloadsFromTheLastFlush() {
+        Long line = lineFor(a).getId();
+        cartService.updateQty(userId, line, 7);
+        store.flushAll();
+        cartService.updateQty(userId, line, 9);
+
+        // Losing memory (crash / restart) drops only the unflushed edit
+        store.discard(userId);
+        assertEquals(7, lineFor(a).getQty());
+    }
+
+    private CartItemView lineFor(Product p) {
+        List<CartItemView> cart = cartService.list(userId);
+        return cart.stream().filter(v -> v.getProduct().getId().equals(p.getId())).findFirst().orElseThrow();
+    }
+
+    private Product product() {
+        Product p = new Product();
+        p.setName("store-product-" + UUID.randomUUID());
+        p.setPrice(BigDecimal.TEN);
+        p.setQty(100);
+        return productRepo.save(p);
+    }
+}
@@ -0,0 +1,96 @@
+package com.ecommerce.ecommercebackend.service;
+
+import com.ecommerce.ecommercebackend.entity.CartItem;
+import com.ecommerce.ecommercebackend.entity.Product;
+import com.ecommerce.ecommercebackend.entity.User;
+import com.ecommerce.ecommercebackend.repository.CartItemRepository;
+import com.ecommerce.ecommercebackend.repository.ProductRepository;
+import com.ecommerce.ecommercebackend.repository.UserRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class CartUpsertConcurrencyTest {
+
+    private static final int ADDS = 200;
+    private static final int QTY = 2;
+    private static final int THREADS = 16;
+
+    @Autowired CartService cartService;
+    @Autowired CartItemRepository cartRepo;
+    @Autowired ProductRepository productRepo;
+    @Autowired UserRepository userRepo;
+
+    @Test
+    void parallelAddsOfTheSameProductLeaveOneLineWithTheSummedQty() throws Exception {
+        User u = user();
+        Product p = product();
+
+        ExecutorService pool = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch go = new CountDownLatch(1);
+        AtomicInteger highest = new AtomicInteger();
+        List<Future<?>> futures = new ArrayList<>();
+        for (int i = 0; i < ADDS; i++) {
+            futures.add(pool.submit(() -> {
+                go.await();
+                highest.accumulateAndGet(cartService.add(u.getId(), p.getId(), QTY), Math::max);
+                return null;
+            }));
+        }
+        go.countDown();
+        for (Future<?> f : futures) f.get(60, TimeUnit.SECONDS);
+        pool.shutdown();
+
+        List<CartItem> lines = cartRepo.findByUserId(u.getId());
+        assertEquals(1, lines.size(), "duplicate cart lines");
+        assertEquals(ADDS * QTY, lines.get(0).getQty());
+        assertEquals(ADDS * QTY, highest.get());
+    }
+
+    @Test
+    void uniqueKeyRejectsASecondLineForTheSameProduct() {
+        User u = user();
+        Product p = product();
+        cartRepo.saveAndFlush(new CartItem(null, u, p, 1));
+
+        assertThrows(DataIntegrityViolationException.class,
+                () -> cartRepo.saveAndFlush(new CartItem(null, u, p, 1)));
+    }
+
+    @Test
+    void unknownProductIsNotFound() {
+        User u = user();
+        ResponseStatusException e = assertThrows(ResponseStatusException.class,
+                () -> cartService.add(u.getId(), Long.MAX_VALUE, 1));
+        assertEquals(404, e.getStatusCode().value());
+    }
+
+    private User user() {
+        User u = new User();
+        u.setUsername("cart-" + UUID.randomUUID());
+        u.setPassword("x");
+        return userRepo.save(u);
+    }
+
+    private Product product() {
+        Product p = new Product();
+        p.setName("cart-product-" + UUID.randomUUID());
+        p.setPrice(BigDecimal.TEN);
+        p.setQty(10);
+        return productRepo.save(p);
+    }
+}
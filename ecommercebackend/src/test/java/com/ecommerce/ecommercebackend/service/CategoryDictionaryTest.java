@@ -0,0 +1,88 @@
+package com.ecommerce.ecommercebackend.service;
+
+import com.ecommerce.ecommercebackend.entity.Category;
+import com.ecommerce.ecommercebackend.entity.Product;
+import com.ecommerce.ecommercebackend.repository.CategoryRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.math.BigDecimal;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class CategoryDictionaryTest {
+
+    @Autowired CategoryDictionary categories;
+    @Autowired CategoryRepository categoryRepo;
+    @Autowired ProductService productService;
+
+    @Test
+    void uniqueKeyIgnoresCaseAndSurroundingWhitespace() {
+        String name = "Garden " + UUID.randomUUID();
+        categoryRepo.save(category(name));
+
+        assertThrows(DataIntegrityViolationException.class,
+                () -> categoryRepo.save(category("  " + name.toUpperCase().replace(" ", "   ") + " ")));
+    }
+
+    @Test
+    void lookupsAndProductCountsFollowWritesWithoutReloading() {
+        Category books = register("Books " + UUID.randomUUID());
+        Category music = register("Music " + UUID.randomUUID());
+
+        assertEquals(books.getId(), categories.idOf(" " + books.getName().toLowerCase()).orElseThrow());
+        assertEquals(music.getName(), categories.nameOf(music.getId()));
+
+        Product a = productService.create(product(books));
+        Product b = productService.create(product(books));
+        assertEquals(2, categories.productCount(books.getId()));
+        assertEquals(0, categories.productCount(music.getId()));
+
+        // Recategorize, then drop the category entirely
+        Product moved = new Product();
+        moved.setName(b.getName());
+        moved.setPrice(b.getPrice());
+        moved.setQty(b.getQty());
+        moved.setCategory(new Category(music.getId(), null, null));
+        productService.update(b.getId(), moved);
+        assertEquals(1, categories.productCount(books.getId()));
+        assertEquals(1, categories.productCount(music.getId()));
+
+        productService.delete(a.getId());
+        assertEquals(0, categories.productCount(books.getId()));
+
+        // The incremental counts agree with a full recount
+        categories.rebuild();
+        assertEquals(0, categories.productCount(books.getId()));
+        assertEquals(1, categories.productCount(music.getId()));
+        assertTrue(categories.menu().stream()
+                .anyMatch(e -> e.getId().equals(music.getId()) && e.getProductCount() == 1));
+    }
+
+    private Category register(String name) {
+        Category c = categoryRepo.save(category(name));
+        categories.register(c);
+        return c;
+    }
+
+    private static Category category(String name) {
+        Category c = new Category();
+        c.setName(name);
+        return c;
+    }
+
+    private static Product product(Category c) {
+        Product p = new Product();
+        p.setName("dict-" + UUID.randomUUID());
+        p.setPrice(BigDecimal.TEN);
+        p.setQty(1);
+        p.setCategory(new Category(c.getId(), null, null));
+        return p;
+    }
+}
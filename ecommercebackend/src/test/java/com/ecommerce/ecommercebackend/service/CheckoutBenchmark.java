@@ -0,0 +1,96 @@
+package com.ecommerce.ecommercebackend.service;
+
+import com.ecommerce.ecommercebackend.entity.*;
+import com.ecommerce.ecommercebackend.repository.*;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.math.BigDecimal;
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// Run with: mvn test -Dtest=CheckoutBenchmark (not part of the default suite)
+@SpringBootTest
+@ActiveProfiles("test")
+class CheckoutBenchmark {
+
+    private static final int[] CART_SIZES = {1, 10, 50};
+    private static final int WARMUP = 20;
+    private static final int ITERATIONS = 200;
+
+    @Autowired OrderService orderService;
+    @Autowired ProductRepository productRepo;
+    @Autowired CartItemRepository cartRepo;
+    @Autowired UserRepository userRepo;
+    @Autowired EntityManagerFactory emf;
+
+    @Test
+    void statementsAndLatencyPerCartSize() {
+        Statistics stats = emf.unwrap(SessionFactory.class).getStatistics();
+        stats.setStatisticsEnabled(true);
+
+        List<Product> products = new ArrayList<>();
+        for (int i = 0; i < 50; i++) {
+            Product p = new Product();
+            p.setName("bench-product-" + i);
+            p.setPrice(BigDecimal.valueOf(100 + i));
+            p.setQty(1_000_000);
+            products.add(p);
+        }
+        products = productRepo.saveAll(products);
+
+        User user = new User();
+        user.setUsername("bench-" + UUID.randomUUID());
+        user.setPassword("x");
+        user = userRepo.save(user);
+
+        Map<Integer, Long> statementsBySize = new LinkedHashMap<>();
+        System.out.printf("%n%-10s %-12s %-10s %-10s%n", "lines", "statements", "p50 (ms)", "p99 (ms)");
+        for (int size : CART_SIZES) {
+            long[] nanos = new long[ITERATIONS];
+            long[] statements = new long[ITERATIONS];
+            for (int i = -WARMUP; i < ITERATIONS; i++) {
+                fillCart(user, products.subList(0, size));
+
+                stats.clear();
+                long start = System.nanoTime();
+                orderService.checkout(user.getId());
+                long elapsed = System.nanoTime() - start;
+
+                if (i >= 0) {
+                    nanos[i] = elapsed;
+                    statements[i] = stats.getPrepareStatementCount();
+                }
+            }
+            Arrays.sort(nanos);
+            Arrays.sort(statements);
+            long median = statements[ITERATIONS / 2];
+            statementsBySize.put(size, median);
+            System.out.printf("%-10d %-12d %-10.2f %-10.2f%n", size, median,
+                    nanos[ITERATIONS / 2] / 1e6, nanos[(int) (ITERATIONS * 0.99) - 1] / 1e6);
+        }
+
+        // A 50-line cart costs the same round trips as a 1-line cart, plus at most one id block fetch
+        long oneLine = statementsBySize.get(1);
+        statementsBySize.values().forEach(s -> assertTrue(s - oneLine <= 1,
+                "statements per checkout grew with cart size: " + statementsBySize));
+    }
+
+    private void fillCart(User user, List<Product> products) {
+        List<CartItem> lines = new ArrayList<>(products.size());
+        for (Product p : products) {
+            CartItem ci = new CartItem();
+            ci.setUser(user);
+            ci.setProduct(p);
+            ci.setQty(2);
+            lines.add(ci);
+        }
+        cartRepo.saveAll(lines);
+    }
+}
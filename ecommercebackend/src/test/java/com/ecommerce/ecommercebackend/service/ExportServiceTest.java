@@ -0,0 +1,149 @@
+package com.ecommerce.ecommercebackend.service;
+
+import com.ecommerce.ecommercebackend.entity.OrderSummary;
+import com.ecommerce.ecommercebackend.repository.OrderSummaryRepository;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.io.ByteArrayOutputStream;
+import java.io.OutputStream;
+import java.lang.management.ManagementFactory;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Lazy query execution keeps H2 itself from materializing the result, like a streaming MySQL cursor
+@SpringBootTest(properties = "spring.datasource.url=jdbc:h2:mem:export;MODE=MySQL;DB_CLOSE_DELAY=-1;"
+        + "LOCK_TIMEOUT=10000;LAZY_QUERY_EXECUTION=TRUE;IGNORE_UNKNOWN_SETTINGS=TRUE")
+@ActiveProfiles("test")
+class ExportServiceTest {
+
+    private static final int BIG_EXPORT = 20_000;
+    private static final int LINES_PER_ORDER = 20;
+    // Heap the export may hold on top of the baseline, far below the size of what it writes
+    private static final long HEAP_CEILING = 16L * 1024 * 1024;
+    private static final long SAMPLE_EVERY = 4L * 1024 * 1024;
+    private static final LocalDateTime START = LocalDateTime.of(2025, 1, 1, 10, 0);
+
+    private static final AtomicLong NEXT_ID = new AtomicLong(9_000_000);
+
+    @Autowired ExportService exportService;
+    @Autowired OrderSummaryRepository summaryRepo;
+    @Autowired ObjectMapper objectMapper;
+
+    @Test
+    void heapStaysUnderCeilingWhileExportingFarMoreThanIt() throws Exception {
+        String status = "BULK-" + UUID.randomUUID();
+        for (int done = 0; done < BIG_EXPORT; done += 1000) {
+            List<OrderSummary> chunk = new ArrayList<>(1000);
+            for (int i = 0; i < 1000; i++) chunk.add(summary(status, START.plusMinutes(done + i), LINES_PER_ORDER));
+            summaryRepo.saveAll(chunk);
+        }
+
+        for (ExportService.Format format : ExportService.Format.values()) {
+            long baseline = usedHeapAfterGc();
+            SamplingStream out = new SamplingStream();
+
+            long rows = exportService.exportOrders(out, format, null, null, status);
+
+            assertEquals(BIG_EXPORT, rows);
+            assertTrue(out.bytes > 3 * HEAP_CEILING, "export too small to prove anything: " + out.bytes + " bytes");
+            long growth = out.peak - baseline;
+            assertTrue(growth < HEAP_CEILING, format + " export held " + growth / 1024 + " KiB of heap while writing "
+                    + out.bytes / 1024 + " KiB");
+        }
+    }
+
+    @Test
+    void filtersByStatusAndCreatedAtAndEscapesCsv() throws Exception {
+        String status = "FILTER-" + UUID.randomUUID();
+        OrderSummary early = summary(status, START, 1);
+        OrderSummary inRange = summary(status, START.plusDays(5), 2);
+        OrderSummary late = summary(status, START.plusDays(10), 1);
+        OrderSummary otherStatus = summary("OTHER-" + UUID.randomUUID(), START.plusDays(5), 1);
+        summaryRepo.saveAll(List.of(early, inRange, late, otherStatus));
+
+        ByteArrayOutputStream ndjson = new ByteArrayOutputStream();
+        long rows = exportService.exportOrders(ndjson, ExportService.Format.NDJSON,
+                START.plusDays(1), START.plusDays(10), status);
+        assertEquals(1, rows);
+
+        String[] records = ndjson.toString(StandardCharsets.UTF_8).split("\n");
+        assertEquals(1, records.length);
+        JsonNode order = objectMapper.readTree(records[0]);
+        assertEquals(inRange.getId(), order.get("id").asLong());
+        assertEquals(status, order.get("status").asText());
+        assertEquals(2, order.get("items").size());
+        assertEquals("Widget, \"deluxe\"", order.get("items").get(0).get("product").get("name").asText());
+
+        ByteArrayOutputStream csv = new ByteArrayOutputStream();
+        exportService.exportOrders(csv, ExportService.Format.CSV, null, null, status);
+        String[] lines = csv.toString(StandardCharsets.UTF_8).split("\r\n");
+        assertEquals("id,userId,status,total,itemCount,createdAt,items", lines[0]);
+        assertEquals(4, lines.length);
+        // The items cell holds JSON with commas and quotes, so it has to be quoted with doubled quotes
+        assertTrue(lines[1].startsWith(early.getId() + ",1," + status + ","), lines[1]);
+        assertTrue(lines[1].contains(",\"[{\"\"id\"\""), lines[1]);
+    }
+
+    @Test
+    void anEmptyExportIsAnEmptyNdjsonFileAndAHeaderOnlyCsv() throws Exception {
+        String status = "NONE-" + UUID.randomUUID();
+
+        ByteArrayOutputStream ndjson = new ByteArrayOutputStream();
+        assertEquals(0, exportService.exportOrders(ndjson, ExportService.Format.NDJSON, null, null, status));
+        assertEquals(0, ndjson.size());
+
+        ByteArrayOutputStream csv = new ByteArrayOutputStream();
+        assertEquals(0, exportService.exportOrders(csv, ExportService.Format.CSV, null, null, status));
+        assertEquals("id,userId,status,total,itemCount,createdAt,items\r\n", csv.toString(StandardCharsets.UTF_8));
+    }
+
+    private static OrderSummary summary(String status, LocalDateTime createdAt, int lines) {
+        List<OrderSummary.Line> items = new ArrayList<>(lines);
+        for (int l = 0; l < lines; l++) {
+            items.add(new OrderSummary.Line((long) l, 1, BigDecimal.TEN, new OrderSummary.ProductSnapshot(
+                    (long) l, "Widget, \"deluxe\"", BigDecimal.TEN,
+                    "https://images.example.com/products/" + UUID.randomUUID() + "/large.jpg")));
+        }
+        return new OrderSummary(NEXT_ID.getAndIncrement(), 1L, status, BigDecimal.TEN, lines, createdAt, items, true);
+    }
+
+    private static long usedHeapAfterGc() {
+        System.gc();
+        return ManagementFactory.getMemoryMXBean().getHeapMemoryUsage().getUsed();
+    }
+
+    // Discards the export, sampling post-GC heap every few MiB written
+    private static final class SamplingStream extends OutputStream {
+        long bytes;
+        long peak;
+        private long nextSample = SAMPLE_EVERY;
+
+        @Override
+        public void write(int b) {
+            count(1);
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) {
+            count(len);
+        }
+
+        private void count(int n) {
+            bytes += n;
+            if (bytes >= nextSample) {
+                nextSample += SAMPLE_EVERY;
+                peak = Math.max(peak, usedHeapAfterGc());
+            }
+        }
+    }
+}
@@ -0,0 +1,137 @@
+package com.ecommerce.ecommercebackend.service;
+
+import com.ecommerce.ecommercebackend.dto.OrderHistoryPage;
+import com.ecommerce.ecommercebackend.entity.*;
+import com.ecommerce.ecommercebackend.repository.*;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Fails the build if a history page stops being a single indexed read
+@SpringBootTest
+@ActiveProfiles("test")
+class OrderHistoryQueryBudgetTest {
+
+    // one select on order_summary
+    private static final long QUERY_BUDGET = 1;
+
+    private static final int ORDERS = 30;
+    private static final int LINES_PER_ORDER = 5;
+    private static final LocalDateTime START = LocalDateTime.of(2025, 1, 1, 10, 0);
+
+    @Autowired OrderService orderService;
+    @Autowired OrderRepository orderRepo;
+    @Autowired ProductRepository productRepo;
+    @Autowired CategoryRepository categoryRepo;
+    @Autowired UserRepository userRepo;
+    @Autowired ObjectMapper objectMapper;
+    @Autowired EntityManagerFactory emf;
+
+    private Statistics stats;
+    private Long userId;
+
+    @BeforeEach
+    void seed() {
+        stats = emf.unwrap(SessionFactory.class).getStatistics();
+        stats.setStatisticsEnabled(true);
+
+        User u = new User();
+        u.setUsername("history-" + UUID.randomUUID());
+        u.setPassword("x");
+        u = userRepo.save(u);
+        userId = u.getId();
+
+        // Distinct products and categories per line, so any lazy load would show up as extra statements
+        for (int o = 0; o < ORDERS; o++) {
+            Order order = new Order();
+            order.setUser(u);
+            order.setStatus("PAID");
+            order.setCreatedAt(START.plusDays(o));
+            List<OrderItem> lines = new ArrayList<>();
+            for (int l = 0; l < LINES_PER_ORDER; l++) {
+                Category c = new Category();
+                c.setName("history-cat-" + UUID.randomUUID());
+                c = categoryRepo.save(c);
+                Product p = new Product();
+                p.setName("history-product-" + o + "-" + l);
+                p.setPrice(BigDecimal.TEN);
+                p.setCategory(c);
+                p = productRepo.save(p);
+
+                OrderItem oi = new OrderItem();
+                oi.setOrder(order);
+                oi.setProduct(p);
+                oi.setQty(1);
+                oi.setPrice(p.getPrice());
+                lines.add(oi);
+            }
+            order.setItems(lines);
+            orderRepo.save(order);
+        }
+        // Orders saved straight through the repository, so build their summaries like startup does
+        orderService.backfillSummaries();
+    }
+
+    @Test
+    void everyPageStaysWithinBudgetAndPagesCoverAllOrders() throws Exception {
+        Set<Long> seen = new HashSet<>();
+        Long cursor = null;
+        Long previousId = Long.MAX_VALUE;
+        do {
+            stats.clear();
+            OrderHistoryPage page = orderService.history(userId, null, null, cursor, 7);
+            // Serialize like the controller does, any lazy load would show up here
+            objectMapper.writeValueAsBytes(page);
+            long statements = stats.getPrepareStatementCount();
+
+            assertTrue(statements <= QUERY_BUDGET,
+                    "history page used " + statements + " statements, budget is " + QUERY_BUDGET);
+            for (OrderSummary o : page.getOrders()) {
+                assertTrue(o.getId() < previousId, "orders must come newest first");
+                assertEquals(LINES_PER_ORDER, o.getItems().size());
+                previousId = o.getId();
+                assertTrue(seen.add(o.getId()), "order " + o.getId() + " returned twice");
+            }
+            cursor = page.getNextCursor();
+        } while (cursor != null);
+
+        assertEquals(ORDERS, seen.size());
+    }
+
+    @Test
+    void dateRangeIsHalfOpen() {
+        OrderHistoryPage page = orderService.history(userId, START.plusDays(10), START.plusDays(20), null, 100);
+
+        assertEquals(10, page.getOrders().size());
+        assertNull(page.getNextCursor());
+        page.getOrders().forEach(o -> {
+            assertFalse(o.getCreatedAt().isBefore(START.plusDays(10)));
+            assertTrue(o.getCreatedAt().isBefore(START.plusDays(20)));
+        });
+    }
+
+    @Test
+    void linesKeepTheNameAndPriceTheyWereBoughtAt() {
+        OrderSummary.Line line = orderService.history(userId, null, null, null, 1).getOrders().get(0).getItems().get(0);
+        Product p = productRepo.findById(line.getProduct().getId()).orElseThrow();
+        p.setName("renamed-" + p.getName());
+        p.setPrice(BigDecimal.valueOf(999));
+        productRepo.save(p);
+
+        OrderSummary.Line after = orderService.history(userId, null, null, null, 1).getOrders().get(0).getItems().get(0);
+        assertEquals(line.getProduct().getName(), after.getProduct().getName());
+        assertEquals(0, BigDecimal.TEN.compareTo(after.getProduct().getPrice()));
+    }
+}
@@ -0,0 +1,65 @@
+package com.ecommerce.ecommercebackend.service;
+
+import com.ecommerce.ecommercebackend.config.BulkheadPasswordEncoder;
+import com.ecommerce.ecommercebackend.exception.PasswordHashingRejectedException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PasswordHashingServiceTest {
+
+    private PasswordHashingService hashing;
+
+    @AfterEach
+    void shutdown() {
+        if (hashing != null) hashing.shutdown();
+    }
+
+    @Test
+    void fullQueueRejectsInsteadOfBlockingCaller() throws Exception {
+        hashing = new PasswordHashingService(1, 1, Duration.ofSeconds(5));
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService callers = Executors.newFixedThreadPool(2);
+
+        // One task running, one queued: the pool is now full
+        List<Future<?>> busy = new ArrayList<>();
+        for (int i = 0; i < 2; i++) {
+            busy.add(callers.submit(() -> hashing.run(() -> {
+                try {
+                    release.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                return null;
+            })));
+        }
+        while (hashing.executor().getQueue().isEmpty()) Thread.sleep(5);
+
+        assertThrows(PasswordHashingRejectedException.class, () -> hashing.run(() -> "x"));
+        assertEquals(1, hashing.rejectedCount());
+
+        release.countDown();
+        for (Future<?> f : busy) f.get(5, TimeUnit.SECONDS);
+        callers.shutdown();
+    }
+
+    @Test
+    void lowerCostHashesAreFlaggedForUpgrade() {
+        hashing = new PasswordHashingService(2, 8, Duration.ofSeconds(5));
+        PasswordEncoder old = new BulkheadPasswordEncoder(new BCryptPasswordEncoder(4), hashing);
+        PasswordEncoder current = new BulkheadPasswordEncoder(new BCryptPasswordEncoder(5), hashing);
+
+        String stored = old.encode("secret");
+        assertTrue(current.matches("secret", stored));
+        assertTrue(current.upgradeEncoding(stored));
+        assertFalse(current.upgradeEncoding(current.encode("secret")));
+    }
+}
@@ -0,0 +1,79 @@
+package com.ecommerce.ecommercebackend.service;
+
+import com.ecommerce.ecommercebackend.dto.ImportReport;
+import com.ecommerce.ecommercebackend.entity.Product;
+import com.ecommerce.ecommercebackend.repository.ProductRatingStatsRepository;
+import com.ecommerce.ecommercebackend.repository.ProductRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Small batches so the test crosses several batch boundaries and the row-by-row fallback
+@SpringBootTest(properties = "products.import.batch-size=3")
+@ActiveProfiles("test")
+class ProductImportServiceTest {
+
+    @Autowired ProductImportService importService;
+    @Autowired ProductService productService;
+    @Autowired ProductRepository productRepo;
+    @Autowired ProductRatingStatsRepository statsRepo;
+
+    @Test
+    void csvRowsAreInsertedAndBadRowsReportedByLine() throws Exception {
+        String tag = "csvimp" + UUID.randomUUID().toString().replace("-", "").substring(0, 8);
+        String csv = "name,price,description,qty,image_url,category\n" +
+                tag + " lamp,499.50,\"Warm, dimmable \"\"smart\"\" lamp\",10,https://img/1.jpg,Lighting " + tag + "\n" +
+                tag + " bulb,99,,5,,lighting " + tag + "\n" +
+                "\n" +
+                tag + " broken,not-a-price,,1,,\n" +
+                ",10,,1,,\n" +
+                tag + " desk,4999,\"Two\nline description\",2,,Furniture " + tag + "\n" +
+                "x".repeat(300) + ",1,,1,,\n" +
+                tag + " chair,2999,,3,,\n";
+
+        ImportReport r = importService.importProducts(stream(csv), ProductImportService.Format.CSV, true);
+
+        assertEquals(7, r.getRowsRead());
+        assertEquals(4, r.getInserted());
+        assertEquals(3, r.getFailed());
+        assertEquals(2, r.getCategoriesCreated(), "category lookup is case-insensitive");
+        assertEquals(List.of(5L, 6L, 9L), r.getErrors().stream().map(ImportReport.RowError::getLine).toList());
+
+        List<Product> lamps = productService.search(tag + " lamp", 10);
+        assertEquals(1, lamps.size(), "search index refreshed after the import");
+        Product lamp = lamps.get(0);
+        assertEquals("Warm, dimmable \"smart\" lamp", lamp.getDescription());
+        assertEquals("Lighting " + tag, lamp.getCategory().getName());
+        assertTrue(statsRepo.existsById(lamp.getId()), "rating aggregates seeded for imported products");
+    }
+
+    @Test
+    void ndjsonSkipsMalformedLinesAndUnknownCategories() throws Exception {
+        String tag = "ndimp" + UUID.randomUUID().toString().replace("-", "").substring(0, 8);
+        String ndjson = "{\"name\":\"" + tag + " one\",\"price\":10,\"qty\":1}\n" +
+                "{\"name\":\"" + tag + " two\",\"price\":\"20.5\"\n" +
+                "{\"name\":\"" + tag + " three\",\"price\":30,\"category\":\"No such " + tag + "\"}\n" +
+                "{\"name\":\"" + tag + " four\",\"price\":40,\"qty\":-1}\n" +
+                "{\"name\":\"" + tag + " five\",\"price\":50}\n";
+
+        ImportReport r = importService.importProducts(stream(ndjson), ProductImportService.Format.NDJSON, false);
+
+        assertEquals(5, r.getRowsRead());
+        assertEquals(2, r.getInserted());
+        assertEquals(3, r.getFailed());
+        assertEquals(0, r.getCategoriesCreated());
+        assertEquals(2, productService.search(tag, 10).size());
+    }
+
+    private static ByteArrayInputStream stream(String s) {
+        return new ByteArrayInputStream(s.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,71 @@
+package com.ecommerce.ecommercebackend.service;
+
+import com.ecommerce.ecommercebackend.entity.Product;
+import com.ecommerce.ecommercebackend.entity.ProductRatingStats;
+import com.ecommerce.ecommercebackend.entity.User;
+import com.ecommerce.ecommercebackend.repository.ProductRatingStatsRepository;
+import com.ecommerce.ecommercebackend.repository.ProductRepository;
+import com.ecommerce.ecommercebackend.repository.UserRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.math.BigDecimal;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class RatingStatsTest {
+
+    @Autowired ReviewService reviews;
+    @Autowired ProductService productService;
+    @Autowired ProductRepository productRepo;
+    @Autowired ProductRatingStatsRepository statsRepo;
+    @Autowired UserRepository userRepo;
+    @Autowired JdbcTemplate jdbc;
+
+    private User user;
+    private Product product;
+
+    @BeforeEach
+    void seed() {
+        User u = new User();
+        u.setUsername("stats-" + UUID.randomUUID());
+        u.setPassword("x");
+        user = userRepo.save(u);
+        Product p = new Product();
+        p.setName("stats-" + UUID.randomUUID());
+        p.setPrice(BigDecimal.TEN);
+        p.setQty(1);
+        product = productService.create(p);
+    }
+
+    @Test
+    void rebuildRepairsADriftedAverageEvenWhenTheStatsRowIsRight() {
+        reviews.add(user, product, 4, "good");
+        jdbc.update("UPDATE product SET avg_rating = 1.0 WHERE id = ?", product.getId());
+
+        assertTrue(reviews.rebuildStats() >= 1);
+        assertEquals(4.0, productRepo.findById(product.getId()).orElseThrow().getAvgRating());
+    }
+
+    @Test
+    void aReviewSeedsAMissingStatsRowFromThatProductsReviews() {
+        reviews.add(user, product, 2, "meh");
+        statsRepo.deleteById(product.getId());
+
+        reviews.add(user, product, 5, "better");
+
+        ProductRatingStats s = statsRepo.findById(product.getId()).orElseThrow();
+        assertEquals(2, s.getReviewCount());
+        assertEquals(7, s.getRatingSum());
+        assertEquals(1, s.getStars2());
+        assertEquals(1, s.getStars5());
+        assertEquals(3.5, productRepo.findById(product.getId()).orElseThrow().getAvgRating());
+    }
+}
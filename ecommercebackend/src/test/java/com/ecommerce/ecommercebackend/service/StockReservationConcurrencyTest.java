@@ -0,0 +1,110 @@
+package com.ecommerce.ecommercebackend.service;
+
+import com.ecommerce.ecommercebackend.entity.*;
+import com.ecommerce.ecommercebackend.exception.InsufficientStockException;
+import com.ecommerce.ecommercebackend.repository.*;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.math.BigDecimal;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class StockReservationConcurrencyTest {
+
+    private static final int HOT_STOCK = 100;
+    private static final int LIMITED_STOCK = 30;
+    private static final int BUYERS = 200;
+    private static final int THREADS = 16;
+
+    @Autowired OrderService orderService;
+    @Autowired ProductRepository productRepo;
+    @Autowired CartItemRepository cartRepo;
+    @Autowired UserRepository userRepo;
+
+    @Test
+    void flashSaleNeverOversellsAndFailedCartsTakeNothing() throws Exception {
+        Product hot = product("hot-sku", HOT_STOCK);
+        Product limited = product("limited-sku", LIMITED_STOCK);
+
+        // Every cart wants 3 hot + 1 limited, so both SKUs sell out and later carts must fail whole
+        List<Long> buyers = new ArrayList<>();
+        for (int i = 0; i < BUYERS; i++) {
+            User u = new User();
+            u.setUsername("buyer-" + UUID.randomUUID());
+            u.setPassword("x");
+            u = userRepo.save(u);
+            cartRepo.save(new CartItem(null, u, hot, 3));
+            cartRepo.save(new CartItem(null, u, limited, 1));
+            buyers.add(u.getId());
+        }
+
+        ExecutorService pool = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch go = new CountDownLatch(1);
+        AtomicInteger rejected = new AtomicInteger();
+        List<Order> orders = new CopyOnWriteArrayList<>();
+        List<Throwable> errors = new CopyOnWriteArrayList<>();
+
+        List<Future<?>> futures = new ArrayList<>();
+        for (Long userId : buyers) {
+            futures.add(pool.submit(() -> {
+                go.await();
+                try {
+                    orders.add(orderService.checkout(userId));
+                } catch (InsufficientStockException e) {
+                    rejected.incrementAndGet();
+                } catch (Throwable t) {
+                    errors.add(t);
+                }
+                return null;
+            }));
+        }
+
+        long start = System.nanoTime();
+        go.countDown();
+        for (Future<?> f : futures) f.get(60, TimeUnit.SECONDS);
+        double seconds = (System.nanoTime() - start) / 1e9;
+        pool.shutdown();
+
+        assertTrue(errors.isEmpty(), "unexpected checkout errors: " + errors);
+        assertEquals(BUYERS, orders.size() + rejected.get());
+
+        int hotSold = soldOf(orders, hot.getId());
+        int limitedSold = soldOf(orders, limited.getId());
+        int hotLeft = productRepo.findById(hot.getId()).orElseThrow().getQty();
+        int limitedLeft = productRepo.findById(limited.getId()).orElseThrow().getQty();
+
+        // Zero oversell, and stock moved by exactly what the successful orders contain
+        assertTrue(hotLeft >= 0 && limitedLeft >= 0);
+        assertEquals(HOT_STOCK, hotSold + hotLeft);
+        assertEquals(LIMITED_STOCK, limitedSold + limitedLeft);
+        // 3 hot per cart → 33 carts fit; 1 limited per cart → 30 fit; the tighter SKU decides
+        assertEquals(Math.min(HOT_STOCK / 3, LIMITED_STOCK), orders.size());
+
+        System.out.printf("%nflash sale: %d checkouts on %d threads in %.2f s → %.0f checkouts/s (%d ok, %d rejected)%n",
+                BUYERS, THREADS, seconds, BUYERS / seconds, orders.size(), rejected.get());
+    }
+
+    private Product product(String name, int qty) {
+        Product p = new Product();
+        p.setName(name + "-" + UUID.randomUUID());
+        p.setPrice(BigDecimal.TEN);
+        p.setQty(qty);
+        return productRepo.save(p);
+    }
+
+    private static int soldOf(List<Order> orders, Long productId) {
+        return orders.stream()
+                .flatMap(o -> o.getItems().stream())
+                .filter(oi -> oi.getProduct().getId().equals(productId))
+                .mapToInt(OrderItem::getQty)
+                .sum();
+    }
+}